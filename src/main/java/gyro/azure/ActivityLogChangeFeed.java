@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.azure.core.util.Context;
+import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.monitor.fluent.models.EventDataInner;
+
+/**
+ * {@link AzureChangeFeed} backed by the subscription activity log.
+ */
+public class ActivityLogChangeFeed implements AzureChangeFeed {
+
+    static final Duration RETENTION = Duration.ofDays(89);
+
+    private final AzureResourceManager client;
+
+    public ActivityLogChangeFeed(AzureResourceManager client) {
+        this.client = client;
+    }
+
+    @Override
+    public Duration retention() {
+        return RETENTION;
+    }
+
+    @Override
+    public Map<String, OffsetDateTime> changedResources(OffsetDateTime since, OffsetDateTime until) {
+        String filter = String.format(
+            "eventTimestamp ge '%s' and eventTimestamp le '%s'",
+            since.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
+            until.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+
+        Map<String, OffsetDateTime> changes = new HashMap<>();
+
+        for (EventDataInner event : client.activityLogs().manager().serviceClient().getActivityLogs()
+            .list(filter, "resourceId,eventTimestamp", Context.NONE)) {
+
+            if (event.resourceId() != null) {
+                OffsetDateTime time = event.eventTimestamp() != null ? event.eventTimestamp() : until;
+                changes.merge(event.resourceId().toLowerCase(), time, (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+
+        return changes;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import gyro.core.GyroException;
+
+/**
+ * Polls until an operation-specific readiness check passes, with exponential backoff and jitter.
+ *
+ * The first check runs immediately and the delay between checks starts at {@link #startingAt} (250 milliseconds by
+ * default) and doubles up to {@link #maxInterval} (10 seconds by default), so something that is ready after two
+ * seconds is noticed after about two seconds instead of after a fixed polling interval. Each delay is randomized
+ * between half and all of its value so that many resources waiting on the same thing don't poll in lockstep.
+ *
+ * <pre>
+ * boolean ready = AzureBackoff.atMost(2, TimeUnit.MINUTES)
+ *     .maxInterval(5, TimeUnit.SECONDS)
+ *     .until(() -&gt; isReady());
+ * </pre>
+ */
+public final class AzureBackoff {
+
+    private final long deadlineNanos;
+    private long initialMillis = 250;
+    private long maxMillis = TimeUnit.SECONDS.toMillis(10);
+
+    private AzureBackoff(long timeout, TimeUnit unit) {
+        this.deadlineNanos = System.nanoTime() + unit.toNanos(timeout);
+    }
+
+    /**
+     * Starts a poll that gives up once {@code timeout} has passed.
+     */
+    public static AzureBackoff atMost(long timeout, TimeUnit unit) {
+        return new AzureBackoff(timeout, unit);
+    }
+
+    /**
+     * Sets the delay before the second check.
+     */
+    public AzureBackoff startingAt(long delay, TimeUnit unit) {
+        this.initialMillis = Math.max(1, unit.toMillis(delay));
+        return this;
+    }
+
+    /**
+     * Sets the longest delay between two checks.
+     */
+    public AzureBackoff maxInterval(long delay, TimeUnit unit) {
+        this.maxMillis = Math.max(1, unit.toMillis(delay));
+        return this;
+    }
+
+    /**
+     * Runs {@code check} until it returns {@code true} or the deadline passes, and returns whether it passed. The
+     * check always runs once more at the deadline. Runtime exceptions from the check are rethrown as is.
+     */
+    public boolean until(Callable<Boolean> check) {
+        long delay = Math.min(initialMillis, maxMillis);
+
+        while (true) {
+            if (passes(check)) {
+                return true;
+            }
+
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+
+            if (remainingMillis <= 0) {
+                return false;
+            }
+
+            long jittered = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+
+            try {
+                Thread.sleep(Math.min(jittered, remainingMillis));
+
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                throw new GyroException("Interrupted while waiting!", error);
+            }
+
+            delay = Math.min(delay * 2, maxMillis);
+        }
+    }
+
+    private static boolean passes(Callable<Boolean> check) {
+        try {
+            return Boolean.TRUE.equals(check.call());
+
+        } catch (RuntimeException error) {
+            throw error;
+
+        } catch (Exception error) {
+            throw new GyroException(error.getMessage(), error);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/**
+ * Source of the IDs of Azure resources that changed within a time window.
+ */
+public interface AzureChangeFeed {
+
+    /**
+     * Returns how far back the feed can answer.
+     */
+    Duration retention();
+
+    /**
+     * Returns the lower-cased IDs of every resource written, deleted or acted on between {@code since} and
+     * {@code until}, each with the time of its newest change.
+     */
+    Map<String, OffsetDateTime> changedResources(OffsetDateTime since, OffsetDateTime until);
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.policy.AddHeadersFromContextPolicy;
+import com.psddev.dari.util.ObjectUtils;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Conditional GETs for ARM resources that return an ETag.
+ */
+public final class AzureConditionalGet {
+
+    private AzureConditionalGet() {
+    }
+
+    /**
+     * Blocks on {@code request} with an {@code If-None-Match} header for {@code etag}. When Azure answers
+     * {@code 304 Not Modified}, {@code onNotModified} runs and {@code null} is returned. Without an ETag this is a
+     * plain GET.
+     */
+    public static <T> T get(Mono<T> request, String etag, Runnable onNotModified) {
+        if (ObjectUtils.isBlank(etag)) {
+            return request.block();
+        }
+
+        try {
+            // The management pipeline copies the headers found under this context key onto the request.
+            return request
+                .contextWrite(Context.of(
+                    AddHeadersFromContextPolicy.AZURE_REQUEST_HTTP_HEADERS_KEY,
+                    new HttpHeaders().set("If-None-Match", etag)))
+                .block();
+
+        } catch (HttpResponseException error) {
+            if (error.getResponse() != null && error.getResponse().getStatusCode() == 304) {
+                onNotModified.run();
+                return null;
+            }
+
+            throw error;
+        }
+    }
+
+    /**
+     * Returns {@code true} if both ETags are set and equal, meaning the model read from Azure is the version already
+     * in state.
+     */
+    public static boolean isSameVersion(String etag, String modelEtag) {
+        return !ObjectUtils.isBlank(etag) && etag.equals(modelEtag);
+    }
+}
@@ -28,6 +28,7 @@ import com.azure.identity.AzureCliCredentialBuilder;
 import com.azure.identity.ClientSecretCredentialBuilder;
 import com.azure.resourcemanager.AzureResourceManager;
 import com.azure.resourcemanager.communication.CommunicationManager;
+import com.azure.resourcemanager.resourcegraph.ResourceGraphManager;
 import com.psddev.dari.util.ObjectUtils;
 import com.psddev.dari.util.StringUtils;
 import gyro.core.GyroException;
@@ -38,6 +39,9 @@ public class AzureCredentials extends Credentials {
     private String region;
     private String credentialFilePath;
     private String logLevel;
+    private Boolean incrementalRefresh;
+    private String incrementalRefreshSource;
+    private Boolean resourceGraphReads;
 
     public String getRegion() {
         return region != null ? region.toUpperCase() : null;
@@ -63,6 +67,30 @@ public class AzureCredentials extends Credentials {
         this.logLevel = logLevel;
     }
 
+    public Boolean getIncrementalRefresh() {
+        return incrementalRefresh;
+    }
+
+    public void setIncrementalRefresh(Boolean incrementalRefresh) {
+        this.incrementalRefresh = incrementalRefresh;
+    }
+
+    public String getIncrementalRefreshSource() {
+        return incrementalRefreshSource != null ? incrementalRefreshSource.toLowerCase() : "activity-log";
+    }
+
+    public void setIncrementalRefreshSource(String incrementalRefreshSource) {
+        this.incrementalRefreshSource = incrementalRefreshSource;
+    }
+
+    public Boolean getResourceGraphReads() {
+        return resourceGraphReads;
+    }
+
+    public void setResourceGraphReads(Boolean resourceGraphReads) {
+        this.resourceGraphReads = resourceGraphReads;
+    }
+
     public <T> T createClient(Class<T> clientClass) {
         Properties properties;
 
@@ -103,6 +131,24 @@ public class AzureCredentials extends Credentials {
                 throw new GyroException(error.getMessage(), error);
             }
 
+        } else if (clientClass.getSimpleName().equals("ResourceGraphManager")) {
+            try {
+                ResourceGraphManager client = ResourceGraphManager
+                    .configure()
+                    .withHttpClient(new OkHttpAsyncHttpClientBuilder().build())
+                    .authenticate(credential, azureProfile);
+
+                if (clientClass.isInstance(client)) {
+                    return clientClass.cast(client);
+                }
+
+                throw new GyroException(
+                    String.format("Unable to create %s client", clientClass.getSimpleName()));
+
+            } catch (Exception error) {
+                throw new GyroException(error.getMessage(), error);
+            }
+
         } else if (clientClass.getSimpleName().equals("AzureResourceManager")) {
             try {
                 AzureResourceManager.Authenticated authenticated = AzureResourceManager
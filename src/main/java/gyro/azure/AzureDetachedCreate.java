@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.azure.core.management.exception.ManagementException;
+import gyro.core.GyroException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Starts a create without waiting for it to finish.
+ *
+ * Azure keeps provisioning a resource once it has accepted the create request, whether or not anyone is polling,
+ * and the resource's own GET reports how far it got through its provisioning state. {@link #begin} subscribes to
+ * the async create and returns as soon as the resource can be read back, which is usually seconds into an operation
+ * that takes many minutes. At that point it stops listening to the create; Azure keeps going.
+ *
+ * No polling URL is kept, so only resources whose GET reports a provisioning state can opt in. They record it as an
+ * output, and every refresh reads it again: the rest of the outputs are filled in once provisioning has finished,
+ * and a create that failed after {@link #begin} returned is only seen there, as a ``Failed`` provisioning state.
+ */
+public final class AzureDetachedCreate {
+
+    private static final Duration ACCEPT_TIMEOUT = Duration.ofMinutes(5);
+
+    private AzureDetachedCreate() {
+    }
+
+    /**
+     * Starts {@code create} and returns the model from {@code lookup} as soon as it finds the new resource, or the
+     * created model if the create finishes first. A create that fails before that is rethrown; later failures show
+     * up in the provisioning state.
+     */
+    public static <T> T begin(String description, Mono<T> create, Supplier<T> lookup) {
+        AtomicReference<T> created = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicReference<T> found = new AtomicReference<>();
+
+        Disposable subscription = create.subscribe(created::set, failure::set);
+        boolean accepted;
+
+        try {
+            accepted = AzureBackoff.atMost(ACCEPT_TIMEOUT.getSeconds(), TimeUnit.SECONDS)
+                .startingAt(1, TimeUnit.SECONDS)
+                .maxInterval(10, TimeUnit.SECONDS)
+                .until(() -> {
+                    if (failure.get() != null || created.get() != null) {
+                        return true;
+                    }
+
+                    found.set(find(lookup));
+                    return found.get() != null;
+                });
+
+        } finally {
+            // Only stops the local polling, the create carries on in Azure.
+            subscription.dispose();
+        }
+
+        if (failure.get() != null) {
+            Throwable error = failure.get();
+
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+
+            throw new GyroException(error.getMessage(), error);
+        }
+
+        if (created.get() != null) {
+            return created.get();
+        }
+
+        if (!accepted) {
+            throw new GyroException(String.format(
+                "The %s was not accepted within %d minutes!",
+                description,
+                ACCEPT_TIMEOUT.toMinutes()));
+        }
+
+        return found.get();
+    }
+
+    /**
+     * Returns whether a provisioning state means the last create or update failed.
+     */
+    public static boolean isFailed(String provisioningState) {
+        return "Failed".equalsIgnoreCase(provisioningState);
+    }
+
+    private static <T> T find(Supplier<T> lookup) {
+        try {
+            return lookup.get();
+
+        } catch (ManagementException error) {
+            if (error.getResponse() != null && error.getResponse().getStatusCode() == 404) {
+                return null;
+            }
+
+            throw error;
+        }
+    }
+}
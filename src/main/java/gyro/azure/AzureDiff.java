@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import gyro.core.resource.Diffable;
+import gyro.core.resource.DiffableField;
+import gyro.core.resource.DiffableType;
+
+/**
+ * Compares two versions of a subresource field by field, using the same {@link DiffableType} metadata gyro diffs
+ * with.
+ *
+ * Resources whose Azure update replaces a whole collection of subresources use this to send only the elements that
+ * were added, removed or changed, instead of hand-written comparisons that drift from the fields.
+ */
+public final class AzureDiff {
+
+    private AzureDiff() {
+    }
+
+    /**
+     * Returns {@code true} if any field of {@code pending} differs from {@code current}, including fields of nested
+     * subresources, which are matched by their primary keys.
+     */
+    public static boolean isChanged(Diffable pending, Diffable current) {
+        if (pending == null || current == null) {
+            return pending != current;
+        }
+
+        if (pending.getClass() != current.getClass()) {
+            return true;
+        }
+
+        for (DiffableField field : DiffableType.getInstance(pending.getClass()).getFields()) {
+            if (isValueChanged(field.getValue(pending), field.getValue(current))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isValueChanged(Object pending, Object current) {
+        if (pending instanceof Diffable || current instanceof Diffable) {
+            return !(pending instanceof Diffable && current instanceof Diffable)
+                || isChanged((Diffable) pending, (Diffable) current);
+        }
+
+        if (pending instanceof Collection && current instanceof Collection) {
+            Collection<?> pendingItems = (Collection<?>) pending;
+            Collection<?> currentItems = (Collection<?>) current;
+
+            if (pendingItems.size() != currentItems.size()) {
+                return true;
+            }
+
+            if (pendingItems.stream().anyMatch(Diffable.class::isInstance)) {
+                Map<String, Object> currentByKey = new HashMap<>();
+
+                for (Object item : currentItems) {
+                    if (item instanceof Diffable) {
+                        currentByKey.put(((Diffable) item).primaryKey(), item);
+                    }
+                }
+
+                return pendingItems.stream().anyMatch(item -> isValueChanged(
+                    item,
+                    item instanceof Diffable ? currentByKey.get(((Diffable) item).primaryKey()) : null));
+            }
+        }
+
+        return !Objects.equals(pending, current);
+    }
+}
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import com.azure.core.credential.TokenCredential;
+import com.azure.resourcemanager.AzureResourceManager;
 import com.psddev.dari.util.TypeDefinition;
 import gyro.core.finder.Finder;
 
@@ -39,12 +40,31 @@ public abstract class AzureFinder<C, M, R extends AzureResource> extends Finder<
 
     @Override
     public List<R> findAll() {
-        return findAllAzure(newClient()).stream()
+        return findAllModels().stream()
             .map(this::newResource)
             .collect(Collectors.toList());
     }
 
-    private C newClient() {
+    // Models that AzureResourceGraph supports are read with one Resource Graph query when the credentials enable
+    // resource-graph-reads.
+    private List<M> findAllModels() {
+        AzureCredentials credentials = credentials(AzureCredentials.class);
+
+        @SuppressWarnings("unchecked")
+        Class<M> modelClass = (Class<M>) TypeDefinition.getInstance(getClass())
+            .getInferredGenericTypeArgumentClass(AzureFinder.class, 1);
+
+        if (Boolean.TRUE.equals(credentials.getResourceGraphReads()) && AzureResourceGraph.supports(modelClass)) {
+            return new AzureResourceGraph(credentials).list(
+                AzureResource.createClient(AzureResourceManager.class, credentials),
+                modelClass,
+                null);
+        }
+
+        return findAllAzure(newClient());
+    }
+
+    protected C newClient() {
         @SuppressWarnings("unchecked")
         Class<C> clientClass = (Class<C>) TypeDefinition.getInstance(getClass())
             .getInferredGenericTypeArgumentClass(AzureFinder.class, 0);
@@ -68,7 +88,7 @@ public abstract class AzureFinder<C, M, R extends AzureResource> extends Finder<
     }
 
     @SuppressWarnings("unchecked")
-    private Map<String, String> convertFilters(Map<String, Object> query) {
+    protected Map<String, String> convertFilters(Map<String, Object> query) {
         Map<String, String> filters = new HashMap<>();
 
         for (Map.Entry<String, Object> e : query.entrySet()) {
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import com.azure.resourcemanager.AzureResourceManager;
+import com.psddev.dari.util.ObjectUtils;
+import gyro.core.GyroCore;
+
+/**
+ * Lets resources skip {@code refresh()} when ``incremental-refresh`` is enabled on the credentials.
+ *
+ * Every resource has its own watermark in ``.gyro/cache/azure-incremental-refresh.properties``: the start of the
+ * last run whose refresh of it made it into saved state. The first check in a run asks the {@link AzureChangeFeed}
+ * which resources changed since the oldest watermark of the subscription. ``incremental-refresh-source`` picks the
+ * activity log (the default) or the Resource Graph change history. A resource is unchanged when neither it, one of
+ * its parents nor one of its children changed after its watermark.
+ *
+ * A refreshed resource only gets a pending watermark. The next run promotes it if a file under ``.gyro/state`` was
+ * written after the refresh, and drops it otherwise, so a run that failed or was aborted before saving state never
+ * hides a change. A skipped resource keeps the state that was already saved, so its watermark moves right away.
+ *
+ * Activity log events can take several minutes to show up, so every watermark is moved back by
+ * {@link #EVENT_DELAY}. Resources without a watermark, or with one older than the retention of the feed, always
+ * refresh.
+ */
+public class AzureIncrementalRefresh {
+
+    static final Duration EVENT_DELAY = Duration.ofMinutes(30);
+    static final Duration MAX_WINDOW = Duration.ofDays(89);
+    static final String PENDING_PREFIX = "pending.";
+
+    private static final String STATE_FILE = ".gyro/cache/azure-incremental-refresh.properties";
+    private static final String STATE_DIRECTORY = ".gyro/state";
+    private static final Map<String, AzureIncrementalRefresh> INSTANCES = new ConcurrentHashMap<>();
+
+    private final OffsetDateTime runStart;
+    private final Map<String, OffsetDateTime> watermarks;
+    private final OffsetDateTime windowStart;
+    private final Map<String, OffsetDateTime> changes;
+    private final Map<String, OffsetDateTime> latestBelow = new HashMap<>();
+    private final Map<String, OffsetDateTime> confirmed = new ConcurrentHashMap<>();
+    private final Map<String, OffsetDateTime> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the changes since the oldest usable watermark from {@code feed}.
+     */
+    AzureIncrementalRefresh(OffsetDateTime runStart, Map<String, OffsetDateTime> watermarks, AzureChangeFeed feed) {
+        this.runStart = runStart;
+        this.watermarks = watermarks;
+        this.windowStart = runStart.minus(feed.retention());
+
+        OffsetDateTime oldest = watermarks.values().stream()
+            .map(watermark -> watermark.minus(EVENT_DELAY))
+            .filter(since -> !since.isBefore(windowStart))
+            .min(OffsetDateTime::compareTo)
+            .orElse(null);
+
+        Map<String, OffsetDateTime> changes = null;
+
+        if (oldest != null) {
+            try {
+                changes = feed.changedResources(oldest, runStart);
+
+            } catch (RuntimeException error) {
+                // Without a reliable change set fall back to refreshing everything.
+                changes = null;
+            }
+        }
+
+        this.changes = changes;
+
+        // Index every change under its own ID and each of its parents, so a resource finds the newest change to
+        // itself or any of its children with one lookup.
+        if (changes != null) {
+            changes.forEach((id, time) -> {
+                for (int i = id.length(); i > 0; i = id.lastIndexOf('/', i - 1)) {
+                    latestBelow.merge(id.substring(0, i), time, AzureIncrementalRefresh::latest);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs {@code refresh} for the resource with the given ID unless incremental refresh is enabled and the
+     * resource has not changed since its last saved refresh.
+     */
+    public static boolean refresh(AzureCredentials credentials, String resourceId, BooleanSupplier refresh) {
+        if (!Boolean.TRUE.equals(credentials.getIncrementalRefresh()) || ObjectUtils.isBlank(resourceId)) {
+            return refresh.getAsBoolean();
+        }
+
+        return INSTANCES.computeIfAbsent(
+            ObjectUtils.to(String.class, credentials.getCredentialFilePath()),
+            k -> start(credentials))
+            .refresh(resourceId, refresh);
+    }
+
+    boolean refresh(String resourceId, BooleanSupplier refresh) {
+        String id = resourceId.toLowerCase();
+
+        if (isUnchanged(id)) {
+            confirmed.put(id, runStart);
+            return true;
+        }
+
+        boolean exists = refresh.getAsBoolean();
+
+        if (exists) {
+            pending.put(id, OffsetDateTime.now(ZoneOffset.UTC));
+        }
+
+        return exists;
+    }
+
+    boolean isUnchanged(String id) {
+        OffsetDateTime watermark = watermarks.get(id);
+
+        if (changes == null || watermark == null) {
+            return false;
+        }
+
+        OffsetDateTime since = watermark.minus(EVENT_DELAY);
+
+        if (since.isBefore(windowStart)) {
+            return false;
+        }
+
+        if (isAfter(latestBelow.get(id), since)) {
+            return false;
+        }
+
+        for (int i = id.lastIndexOf('/'); i > 0; i = id.lastIndexOf('/', i - 1)) {
+            if (isAfter(changes.get(id.substring(0, i)), since)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes the watermarks of this run into {@code properties}: skipped resources directly, refreshed ones as
+     * pending until state is known to be saved.
+     */
+    void record(Properties properties) {
+        confirmed.forEach((id, watermark) -> properties.setProperty(id, watermark.toString()));
+        pending.forEach((id, refreshedAt) -> properties.setProperty(PENDING_PREFIX + id, runStart + "," + refreshedAt));
+    }
+
+    /**
+     * Turns the pending watermarks in {@code properties} into watermarks when state was saved at or after the
+     * refresh that recorded them, and drops the rest. Returns {@code true} if anything changed.
+     */
+    static boolean promote(Properties properties, OffsetDateTime lastStateSave) {
+        boolean changed = false;
+
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(PENDING_PREFIX)) {
+                continue;
+            }
+
+            String[] value = properties.getProperty(key).split(",", 2);
+            OffsetDateTime watermark = parse(value[0]);
+            OffsetDateTime refreshedAt = value.length > 1 ? parse(value[1]) : null;
+
+            properties.remove(key);
+            changed = true;
+
+            if (watermark != null
+                && refreshedAt != null
+                && lastStateSave != null
+                && !lastStateSave.isBefore(refreshedAt)) {
+
+                String id = key.substring(PENDING_PREFIX.length());
+                OffsetDateTime current = parse(properties.getProperty(id));
+
+                if (current == null || watermark.isAfter(current)) {
+                    properties.setProperty(id, watermark.toString());
+                }
+            }
+        }
+
+        return changed;
+    }
+
+    private static boolean isAfter(OffsetDateTime time, OffsetDateTime since) {
+        return time != null && time.isAfter(since);
+    }
+
+    private static OffsetDateTime latest(OffsetDateTime a, OffsetDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static AzureChangeFeed changeFeed(AzureCredentials credentials, AzureResourceManager client) {
+        return "resource-graph".equals(credentials.getIncrementalRefreshSource())
+            ? new ResourceGraphChangeFeed(new AzureResourceGraph(credentials))
+            : new ActivityLogChangeFeed(client);
+    }
+
+    private static AzureIncrementalRefresh start(AzureCredentials credentials) {
+        AzureResourceManager client = credentials.createClient(AzureResourceManager.class);
+        String prefix = ("/subscriptions/" + client.subscriptionId() + "/").toLowerCase();
+        Path root = GyroCore.getRootDirectory();
+        Path stateFile = root != null ? root.resolve(STATE_FILE) : null;
+
+        OffsetDateTime runStart = OffsetDateTime.now(ZoneOffset.UTC);
+        Properties properties = load(stateFile);
+
+        if (promote(properties, root != null ? lastStateSave(root.resolve(STATE_DIRECTORY)) : null)) {
+            store(stateFile, properties);
+        }
+
+        Map<String, OffsetDateTime> watermarks = new HashMap<>();
+
+        for (String key : properties.stringPropertyNames()) {
+            OffsetDateTime watermark = parse(properties.getProperty(key));
+
+            if (key.startsWith(prefix) && watermark != null) {
+                watermarks.put(key, watermark);
+            }
+        }
+
+        AzureIncrementalRefresh refresh = new AzureIncrementalRefresh(
+            runStart,
+            watermarks,
+            changeFeed(credentials, client));
+
+        if (stateFile != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> save(stateFile, refresh)));
+        }
+
+        return refresh;
+    }
+
+    private static OffsetDateTime lastStateSave(Path stateDirectory) {
+        if (!Files.isDirectory(stateDirectory)) {
+            return null;
+        }
+
+        try (Stream<Path> paths = Files.walk(stateDirectory)) {
+            return paths.filter(Files::isRegularFile)
+                .map(AzureIncrementalRefresh::lastModified)
+                .filter(Objects::nonNull)
+                .max(OffsetDateTime::compareTo)
+                .orElse(null);
+
+        } catch (IOException error) {
+            return null;
+        }
+    }
+
+    private static OffsetDateTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().atOffset(ZoneOffset.UTC);
+
+        } catch (IOException error) {
+            return null;
+        }
+    }
+
+    private static Properties load(Path stateFile) {
+        Properties properties = new Properties();
+
+        if (stateFile != null && Files.exists(stateFile)) {
+            try (InputStream input = Files.newInputStream(stateFile)) {
+                properties.load(input);
+
+            } catch (IOException error) {
+                // A missing or corrupt file only means a full refresh.
+            }
+        }
+
+        return properties;
+    }
+
+    private static synchronized void save(Path stateFile, AzureIncrementalRefresh refresh) {
+        Properties properties = load(stateFile);
+        OffsetDateTime expired = refresh.runStart.minus(MAX_WINDOW);
+
+        refresh.record(properties);
+        properties.entrySet().removeIf(entry -> {
+            String key = (String) entry.getKey();
+            String value = (String) entry.getValue();
+            OffsetDateTime watermark = parse(key.startsWith(PENDING_PREFIX) ? value.split(",", 2)[0] : value);
+
+            return watermark == null || watermark.isBefore(expired);
+        });
+
+        store(stateFile, properties);
+    }
+
+    private static void store(Path stateFile, Properties properties) {
+        if (stateFile == null) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(stateFile.getParent());
+
+            try (OutputStream output = Files.newOutputStream(stateFile)) {
+                properties.store(output, null);
+            }
+
+        } catch (IOException error) {
+            // The next run simply refreshes everything.
+        }
+    }
+
+    private static OffsetDateTime parse(String value) {
+        if (ObjectUtils.isBlank(value)) {
+            return null;
+        }
+
+        try {
+            return OffsetDateTime.parse(value);
+
+        } catch (DateTimeParseException error) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.azure.core.util.polling.LongRunningOperationStatus;
+import com.azure.core.util.polling.PollResponse;
+import com.azure.core.util.polling.SyncPoller;
+import gyro.core.GyroException;
+
+/**
+ * Waits for long-running operations and reports how they end.
+ *
+ * A resource starts an operation with one of the SDK's {@code begin*} methods and submits the returned poller here.
+ * A small pool polls every outstanding operation, each one as often as its {@code Retry-After} hint asks for, and
+ * completes the returned future with the operation's final result. An operation that fails, or that doesn't finish
+ * within the caller's timeout, is reported as a {@link GyroException} naming the operation instead of being
+ * swallowed. Most callers {@link #await} the result right away; scale set scaling writes its progress while the
+ * operation runs.
+ */
+public final class AzureOperations {
+
+    private static final int POOL_SIZE = 2;
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(5);
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(POOL_SIZE, runnable -> {
+        Thread thread = new Thread(runnable, "azure-operations");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AzureOperations() {
+    }
+
+    /**
+     * Polls {@code poller} on the shared pool until the operation finishes. The future fails with a
+     * {@link GyroException} if the operation ends in any state other than success, and cancelling it stops the
+     * polling.
+     */
+    public static <T> CompletableFuture<T> submit(String description, SyncPoller<?, T> poller) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        SCHEDULER.execute(() -> poll(description, poller, result));
+
+        return result;
+    }
+
+    /**
+     * Submits {@code poller} and waits for its final result for as long as the operation runs.
+     */
+    public static <T> T await(String description, SyncPoller<?, T> poller) {
+        return await(description, submit(description, poller), null);
+    }
+
+    /**
+     * Submits {@code poller} and waits up to {@code timeout} for its final result.
+     */
+    public static <T> T await(String description, SyncPoller<?, T> poller, Duration timeout) {
+        return await(description, submit(description, poller), timeout);
+    }
+
+    /**
+     * Waits up to {@code timeout}, or without a limit if it's {@code null}, for an operation submitted earlier. On
+     * timeout Gyro stops polling and throws a {@link GyroException}, but the operation itself is not cancelled in
+     * Azure and keeps running there.
+     */
+    public static <T> T await(String description, CompletableFuture<T> operation, Duration timeout) {
+        try {
+            return timeout != null
+                ? operation.get(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                : operation.get();
+
+        } catch (TimeoutException error) {
+            operation.cancel(false);
+
+            throw new GyroException(String.format(
+                "Timed out after %d seconds waiting for %s! The operation is still running in Azure,"
+                    + " so refresh once it has finished before retrying.",
+                timeout.getSeconds(),
+                description));
+
+        } catch (CancellationException error) {
+            throw new GyroException(String.format("Stopped waiting for %s!", description), error);
+
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new GyroException(String.format("Interrupted while waiting for %s!", description), error);
+
+        } catch (ExecutionException error) {
+            Throwable cause = error.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new GyroException(cause.getMessage(), cause);
+        }
+    }
+
+    private static <T> void poll(String description, SyncPoller<?, T> poller, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+
+        try {
+            PollResponse<?> response = poller.poll();
+            LongRunningOperationStatus status = response.getStatus();
+
+            if (status == LongRunningOperationStatus.SUCCESSFULLY_COMPLETED) {
+                result.complete(poller.getFinalResult());
+
+            } else if (status.isComplete()) {
+                result.completeExceptionally(new GyroException(String.format(
+                    "The %s ended with status [%s]!",
+                    description,
+                    status)));
+
+            } else {
+                Duration delay = response.getRetryAfter() != null && !response.getRetryAfter().isNegative()
+                    ? response.getRetryAfter()
+                    : DEFAULT_POLL_INTERVAL;
+
+                SCHEDULER.schedule(() -> poll(description, poller, result), delay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+
+        } catch (RuntimeException error) {
+            result.completeExceptionally(error);
+        }
+    }
+}
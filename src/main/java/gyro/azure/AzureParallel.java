@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import gyro.core.GyroException;
+
+/**
+ * Runs independent Azure calls on a small, bounded pool of threads.
+ */
+public final class AzureParallel {
+
+    private AzureParallel() {
+    }
+
+    /**
+     * Applies {@code function} to every item using at most {@code concurrency} threads and returns the results in
+     * the order of {@code items}. The first failure is rethrown once all calls finish.
+     */
+    public static <T, R> List<R> map(Collection<T> items, int concurrency, Function<T, R> function) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        if (items.size() == 1 || concurrency <= 1) {
+            return items.stream().map(function).collect(Collectors.toList());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, items.size()));
+
+        try {
+            List<Future<R>> futures = new ArrayList<>();
+
+            for (T item : items) {
+                futures.add(executor.submit(() -> function.apply(item)));
+            }
+
+            List<R> results = new ArrayList<>();
+            RuntimeException failure = null;
+
+            for (Future<R> future : futures) {
+                try {
+                    results.add(future.get());
+
+                } catch (ExecutionException error) {
+                    if (failure == null) {
+                        failure = error.getCause() instanceof RuntimeException
+                            ? (RuntimeException) error.getCause()
+                            : new GyroException(error.getCause().getMessage(), error.getCause());
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+
+            return results;
+
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new GyroException("Interrupted while waiting for Azure calls to finish!", error);
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
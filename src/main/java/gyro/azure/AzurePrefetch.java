@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.compute.models.AvailabilitySet;
+import com.azure.resourcemanager.compute.models.Disk;
+import com.azure.resourcemanager.compute.models.Snapshot;
+import com.azure.resourcemanager.compute.models.VirtualMachine;
+import com.azure.resourcemanager.compute.models.VirtualMachineScaleSet;
+import com.azure.resourcemanager.dns.models.DnsZone;
+import com.azure.resourcemanager.msi.models.Identity;
+import com.azure.resourcemanager.network.models.ApplicationGateway;
+import com.azure.resourcemanager.network.models.ApplicationSecurityGroup;
+import com.azure.resourcemanager.network.models.LoadBalancer;
+import com.azure.resourcemanager.network.models.Network;
+import com.azure.resourcemanager.network.models.NetworkInterface;
+import com.azure.resourcemanager.network.models.NetworkSecurityGroup;
+import com.azure.resourcemanager.network.models.PublicIpAddress;
+import com.azure.resourcemanager.network.models.RouteTable;
+import com.azure.resourcemanager.resources.fluentcore.arm.ResourceId;
+import com.azure.resourcemanager.resources.fluentcore.arm.models.HasId;
+
+/**
+ * Run-level lookup table that lets {@code refresh()} find its model without a GET of its own.
+ *
+ * The first lookup of a type in a resource group lists only that type in that resource group, with one
+ * {@code listByResourceGroup} call, and keeps the models by ID. So 5,000 resources spread over 40 resource groups
+ * cost one list per type and resource group that's actually refreshed instead of one GET each. A failed list is not
+ * kept, so the next lookup in that resource group tries it again.
+ *
+ * When ``resource-graph-reads`` is enabled on the credentials, types that {@link AzureResourceGraph} supports are
+ * instead read with one Resource Graph query per type for the whole subscription. Resource Graph lags a few seconds
+ * behind writes, so once this process wrote anything the per resource group listings are used again.
+ *
+ * Each ID is served from the table once, and every create, update or delete clears the tables through
+ * {@link #invalidate()}, so no lookup sees a model from before a write. Later lookups of the same ID, IDs missing
+ * from the listing, types without a registered lister, IDs from another subscription and failed lists use the
+ * fallback.
+ */
+public final class AzurePrefetch {
+
+    private static final Map<Class<?>, BiFunction<AzureResourceManager, String, Iterable<? extends HasId>>> LISTERS =
+        new HashMap<>();
+
+    private static final Set<String> SERVED_IDS = ConcurrentHashMap.newKeySet();
+    private static final Map<String, CompletableFuture<Map<String, Object>>> TABLES = new ConcurrentHashMap<>();
+
+    private static volatile boolean written;
+
+    static {
+        register(VirtualMachine.class, (client, group) -> client.virtualMachines().listByResourceGroup(group));
+        register(
+            VirtualMachineScaleSet.class,
+            (client, group) -> client.virtualMachineScaleSets().listByResourceGroup(group));
+        register(Disk.class, (client, group) -> client.disks().listByResourceGroup(group));
+        register(Snapshot.class, (client, group) -> client.snapshots().listByResourceGroup(group));
+        register(AvailabilitySet.class, (client, group) -> client.availabilitySets().listByResourceGroup(group));
+        register(NetworkInterface.class, (client, group) -> client.networkInterfaces().listByResourceGroup(group));
+        register(PublicIpAddress.class, (client, group) -> client.publicIpAddresses().listByResourceGroup(group));
+        register(
+            NetworkSecurityGroup.class,
+            (client, group) -> client.networkSecurityGroups().listByResourceGroup(group));
+        register(Network.class, (client, group) -> client.networks().listByResourceGroup(group));
+        register(LoadBalancer.class, (client, group) -> client.loadBalancers().listByResourceGroup(group));
+        register(ApplicationGateway.class, (client, group) -> client.applicationGateways().listByResourceGroup(group));
+        register(
+            ApplicationSecurityGroup.class,
+            (client, group) -> client.applicationSecurityGroups().listByResourceGroup(group));
+        register(RouteTable.class, (client, group) -> client.routeTables().listByResourceGroup(group));
+        register(DnsZone.class, (client, group) -> client.dnsZones().listByResourceGroup(group));
+        register(Identity.class, (client, group) -> client.identities().listByResourceGroup(group));
+    }
+
+    private AzurePrefetch() {
+    }
+
+    private static <M extends HasId> void register(
+        Class<M> type,
+        BiFunction<AzureResourceManager, String, Iterable<M>> lister) {
+
+        LISTERS.put(type, lister::apply);
+    }
+
+    /**
+     * Returns the model of type {@code type} with the given ID from the prefetched listing. See the class
+     * documentation for when {@code fallback} is used instead.
+     */
+    public static <M> M get(
+        AzureCredentials credentials,
+        AzureResourceManager client,
+        Class<M> type,
+        String id,
+        Supplier<M> fallback) {
+
+        if (id == null || !LISTERS.containsKey(type) || !SERVED_IDS.add(type.getName() + id.toLowerCase())) {
+            return fallback.get();
+        }
+
+        String group = resourceGroupKey(client, id);
+
+        if (group == null) {
+            return fallback.get();
+        }
+
+        boolean resourceGraph = !written
+            && Boolean.TRUE.equals(credentials.getResourceGraphReads())
+            && AzureResourceGraph.supports(type);
+
+        Object model;
+
+        try {
+            if (resourceGraph) {
+                model = table(type, group.substring(0, group.indexOf("/resourcegroups/")), () ->
+                    new AzureResourceGraph(credentials).list(client, type, null)).join().get(id.toLowerCase());
+
+            } else {
+                model = table(type, group, () -> LISTERS.get(type)
+                    .apply(client, group.substring(group.lastIndexOf('/') + 1))).join().get(id.toLowerCase());
+            }
+
+        } catch (RuntimeException error) {
+            model = null;
+        }
+
+        // A miss doesn't mean the resource is gone, it may have been created after the listing.
+        return model != null ? type.cast(model) : fallback.get();
+    }
+
+    /**
+     * Forgets every listing, so lookups after a write never see a model from before it. Resources call this before
+     * they create, update or delete anything.
+     */
+    public static void invalidate() {
+        written = true;
+        TABLES.clear();
+        SERVED_IDS.clear();
+    }
+
+    private static CompletableFuture<Map<String, Object>> table(
+        Class<?> type,
+        String scope,
+        Supplier<Iterable<?>> lister) {
+
+        String key = type.getName() + "|" + scope;
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> table = TABLES.putIfAbsent(key, created);
+
+        if (table != null) {
+            return table;
+        }
+
+        try {
+            Map<String, Object> models = new HashMap<>();
+
+            for (Object model : lister.get()) {
+                models.put(((HasId) model).id().toLowerCase(), model);
+            }
+
+            created.complete(models);
+
+        } catch (RuntimeException error) {
+            TABLES.remove(key, created);
+            created.completeExceptionally(error);
+        }
+
+        return created;
+    }
+
+    private static String resourceGroupKey(AzureResourceManager client, String id) {
+        try {
+            ResourceId resourceId = ResourceId.fromString(id);
+
+            if (resourceId.resourceGroupName() == null
+                || !resourceId.subscriptionId().equalsIgnoreCase(client.subscriptionId())) {
+                return null;
+            }
+
+            return String.format(
+                "/subscriptions/%s/resourcegroups/%s",
+                resourceId.subscriptionId(),
+                resourceId.resourceGroupName()).toLowerCase();
+
+        } catch (RuntimeException error) {
+            return null;
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package gyro.azure;
 
+import java.util.function.BooleanSupplier;
+
 import com.azure.core.credential.TokenCredential;
 import com.azure.resourcemanager.AzureResourceManager;
 import com.azure.resourcemanager.communication.CommunicationManager;
@@ -42,4 +44,13 @@ public abstract class AzureResource extends Resource {
     protected TokenCredential getTokenCredential() {
         return credentials(AzureCredentials.class).getTokenCredential();
     }
+
+    /**
+     * Runs {@code refresh}, unless incremental refresh is enabled and finds no change to the resource with the given
+     * ID since it was last refreshed, in which case the current state is kept. Resources that support incremental
+     * refresh call this from their {@code refresh()}.
+     */
+    protected boolean refreshIncrementally(String resourceId, BooleanSupplier refresh) {
+        return AzureIncrementalRefresh.refresh(credentials(AzureCredentials.class), resourceId, refresh);
+    }
 }
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.azure.core.management.serializer.SerializerFactory;
+import com.azure.core.util.serializer.SerializerAdapter;
+import com.azure.core.util.serializer.SerializerEncoding;
+import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.compute.models.AvailabilitySet;
+import com.azure.resourcemanager.compute.models.Disk;
+import com.azure.resourcemanager.compute.models.Snapshot;
+import com.azure.resourcemanager.compute.models.VirtualMachine;
+import com.azure.resourcemanager.compute.models.VirtualMachineScaleSet;
+import com.azure.resourcemanager.dns.models.DnsZone;
+import com.azure.resourcemanager.msi.models.Identity;
+import com.azure.resourcemanager.network.models.ApplicationGateway;
+import com.azure.resourcemanager.network.models.ApplicationSecurityGroup;
+import com.azure.resourcemanager.network.models.LoadBalancer;
+import com.azure.resourcemanager.network.models.Network;
+import com.azure.resourcemanager.network.models.NetworkInterface;
+import com.azure.resourcemanager.network.models.NetworkSecurityGroup;
+import com.azure.resourcemanager.network.models.PublicIpAddress;
+import com.azure.resourcemanager.network.models.RouteTable;
+import com.azure.resourcemanager.resourcegraph.ResourceGraphManager;
+import com.azure.resourcemanager.resourcegraph.models.QueryRequest;
+import com.azure.resourcemanager.resourcegraph.models.QueryRequestOptions;
+import com.azure.resourcemanager.resourcegraph.models.QueryResponse;
+import com.azure.resourcemanager.resourcegraph.models.ResultFormat;
+import gyro.core.GyroException;
+
+/**
+ * Runs Azure Resource Graph queries for a subscription.
+ *
+ * A single KQL query can return thousands of rows, which makes it a cheap way to read state in bulk. Rows of the
+ * ``resources`` table are the ARM representation of a resource, so {@link #list} maps them onto the SDK inner models
+ * and wraps those in the same fluent models that {@code copyFrom} gets from a GET, for the common types registered
+ * below. Finders of those types and {@link AzurePrefetch} use it when ``resource-graph-reads`` is enabled on the
+ * credentials. {@link ResourceGraphChangeFeed} uses it to read the change history of a subscription.
+ */
+public class AzureResourceGraph {
+
+    private static final SerializerAdapter SERIALIZER = SerializerFactory.createDefaultManagementSerializerAdapter();
+    private static final Map<Class<?>, Mapping> MAPPINGS = new HashMap<>();
+    private static final Map<Class<?>, Method> WRAPPERS = new ConcurrentHashMap<>();
+
+    static {
+        register(VirtualMachine.class, "microsoft.compute/virtualmachines", AzureResourceManager::virtualMachines);
+        register(
+            VirtualMachineScaleSet.class,
+            "microsoft.compute/virtualmachinescalesets",
+            AzureResourceManager::virtualMachineScaleSets);
+        register(Disk.class, "microsoft.compute/disks", AzureResourceManager::disks);
+        register(Snapshot.class, "microsoft.compute/snapshots", AzureResourceManager::snapshots);
+        register(AvailabilitySet.class, "microsoft.compute/availabilitysets", AzureResourceManager::availabilitySets);
+        register(
+            NetworkInterface.class,
+            "microsoft.network/networkinterfaces",
+            AzureResourceManager::networkInterfaces);
+        register(
+            PublicIpAddress.class,
+            "microsoft.network/publicipaddresses",
+            AzureResourceManager::publicIpAddresses);
+        register(
+            NetworkSecurityGroup.class,
+            "microsoft.network/networksecuritygroups",
+            AzureResourceManager::networkSecurityGroups);
+        register(Network.class, "microsoft.network/virtualnetworks", AzureResourceManager::networks);
+        register(LoadBalancer.class, "microsoft.network/loadbalancers", AzureResourceManager::loadBalancers);
+        register(
+            ApplicationGateway.class,
+            "microsoft.network/applicationgateways",
+            AzureResourceManager::applicationGateways);
+        register(
+            ApplicationSecurityGroup.class,
+            "microsoft.network/applicationsecuritygroups",
+            AzureResourceManager::applicationSecurityGroups);
+        register(RouteTable.class, "microsoft.network/routetables", AzureResourceManager::routeTables);
+        register(DnsZone.class, "microsoft.network/dnszones", AzureResourceManager::dnsZones);
+        register(Identity.class, "microsoft.managedidentity/userassignedidentities", AzureResourceManager::identities);
+    }
+
+    private final BiFunction<String, String, Page> source;
+
+    public AzureResourceGraph(AzureCredentials credentials) {
+        String subscription = credentials.createClient(AzureResourceManager.class).subscriptionId();
+        ResourceGraphManager manager = credentials.createClient(ResourceGraphManager.class);
+
+        this.source = (query, skipToken) -> {
+            QueryResponse response = manager.resourceProviders().resources(new QueryRequest()
+                .withSubscriptions(Collections.singletonList(subscription))
+                .withQuery(query)
+                .withOptions(new QueryRequestOptions()
+                    .withResultFormat(ResultFormat.OBJECT_ARRAY)
+                    .withSkipToken(skipToken)));
+
+            return new Page(rows(response.data()), response.skipToken());
+        };
+    }
+
+    /**
+     * Creates a reader that gets its pages from {@code source} instead of Azure, for example canned responses.
+     */
+    AzureResourceGraph(BiFunction<String, String, Page> source) {
+        this.source = source;
+    }
+
+    private static void register(Class<?> type, String resourceType, Function<AzureResourceManager, ?> collection) {
+        MAPPINGS.put(type, new Mapping(resourceType, collection));
+    }
+
+    /**
+     * Returns {@code true} if {@link #list} can read models of the given fluent type.
+     */
+    public static boolean supports(Class<?> type) {
+        return MAPPINGS.containsKey(type);
+    }
+
+    /**
+     * Returns every row of the query result, following the skip tokens of the paged response.
+     */
+    public List<Map<String, Object>> query(String query) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        String skipToken = null;
+
+        do {
+            Page page = source.apply(query, skipToken);
+
+            rows.addAll(page.getRows());
+            skipToken = page.getSkipToken();
+
+        } while (skipToken != null);
+
+        return rows;
+    }
+
+    /**
+     * Returns every resource of the fluent {@code type} in the subscription, or only in {@code resourceGroup} if it
+     * isn't {@code null}, as the same models {@code client} would return. See {@link #supports}.
+     */
+    public <M> List<M> list(AzureResourceManager client, Class<M> type, String resourceGroup) {
+        Mapping mapping = MAPPINGS.get(type);
+
+        if (mapping == null) {
+            throw new GyroException(String.format("Resource graph can't read %s!", type.getSimpleName()));
+        }
+
+        Object collection = mapping.collection.apply(client);
+        Method wrapper = WRAPPERS.computeIfAbsent(collection.getClass(), AzureResourceGraph::wrapper);
+        List<M> models = new ArrayList<>();
+
+        for (Map<String, Object> row : query(query(mapping.resourceType, resourceGroup))) {
+            try {
+                models.add(type.cast(wrapper.invoke(collection, toModel(row, wrapper.getParameterTypes()[0]))));
+
+            } catch (IllegalAccessException | InvocationTargetException error) {
+                throw new GyroException(
+                    String.format("Unable to map resource graph row to %s!", type.getSimpleName()),
+                    error);
+            }
+        }
+
+        return models;
+    }
+
+    /**
+     * Returns the KQL query that reads every resource of the ARM {@code resourceType}, optionally only in
+     * {@code resourceGroup}.
+     */
+    static String query(String resourceType, String resourceGroup) {
+        StringBuilder query = new StringBuilder("resources | where type =~ '").append(resourceType).append("'");
+
+        if (resourceGroup != null) {
+            query.append(" and resourceGroup =~ '").append(resourceGroup.replace("'", "\\'")).append("'");
+        }
+
+        return query.toString();
+    }
+
+    /**
+     * Maps a full ``resources`` row onto {@code type}, usually an SDK inner model such as
+     * {@code NetworkSecurityGroupInner}. Columns the model doesn't know, such as ``resourceGroup``, are ignored.
+     */
+    static <T> T toModel(Map<String, Object> row, Class<T> type) {
+        try {
+            return SERIALIZER.deserialize(
+                SERIALIZER.serialize(row, SerializerEncoding.JSON),
+                type,
+                SerializerEncoding.JSON);
+
+        } catch (IOException error) {
+            throw new GyroException(
+                String.format("Unable to map resource graph row to %s!", type.getSimpleName()),
+                error);
+        }
+    }
+
+    // The fluent collections only build their models from inner models in wrapModel(inner), which they don't
+    // expose, so find the most specific override that takes the inner model.
+    private static Method wrapper(Class<?> collectionClass) {
+        for (Class<?> c = collectionClass; c != null; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                Class<?>[] parameters = method.getParameterTypes();
+
+                if (method.getName().equals("wrapModel")
+                    && parameters.length == 1
+                    && parameters[0] != String.class
+                    && parameters[0] != Object.class
+                    && !method.isBridge()
+                    && !Modifier.isAbstract(method.getModifiers())) {
+
+                    method.setAccessible(true);
+                    return method;
+                }
+            }
+        }
+
+        throw new GyroException(String.format(
+            "Unable to find how %s wraps its models!",
+            collectionClass.getSimpleName()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> rows(Object data) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+
+        if (data instanceof List) {
+            for (Object row : (List<Object>) data) {
+                if (row instanceof Map) {
+                    rows.add((Map<String, Object>) row);
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    private static class Mapping {
+
+        private final String resourceType;
+        private final Function<AzureResourceManager, ?> collection;
+
+        Mapping(String resourceType, Function<AzureResourceManager, ?> collection) {
+            this.resourceType = resourceType;
+            this.collection = collection;
+        }
+    }
+
+    /**
+     * One page of a Resource Graph query result.
+     */
+    static class Page {
+
+        private final List<Map<String, Object>> rows;
+        private final String skipToken;
+
+        Page(List<Map<String, Object>> rows, String skipToken) {
+            this.rows = rows;
+            this.skipToken = skipToken;
+        }
+
+        public List<Map<String, Object>> getRows() {
+            return rows;
+        }
+
+        public String getSkipToken() {
+            return skipToken;
+        }
+    }
+}
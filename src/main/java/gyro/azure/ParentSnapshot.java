@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Holds the model of a parent resource so its subresources can refresh from a single GET.
+ *
+ * The first call to {@link #get(String)} fetches the model and later calls by other readers reuse it. A reader that
+ * reads the same snapshot a second time has started a new refresh cycle, so the model is fetched again; that way a
+ * later refresh in a long-lived process, or one after an out-of-band change, never sees an old model. Parents should
+ * also invalidate the snapshot whenever they or one of their subresources write to Azure, which also clears the
+ * {@link AzurePrefetch} listings. A loader that uses a conditional GET calls {@link #notModified()} when Azure
+ * reports that the state is still current.
+ */
+public class ParentSnapshot<M> {
+
+    private final Supplier<M> loader;
+    private M model;
+    private boolean loaded;
+    private boolean notModified;
+    private final Set<String> readers = new HashSet<>();
+
+    public ParentSnapshot(Supplier<M> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the model for {@code reader}, for example the parent itself or one of its subresources by name.
+     */
+    public synchronized M get(String reader) {
+        if (loaded && !readers.add(reader)) {
+            reset();
+        }
+
+        if (!loaded) {
+            notModified = false;
+            model = loader.get();
+            loaded = true;
+            readers.add(reader);
+        }
+
+        return model;
+    }
+
+    /**
+     * Returns {@code true} if the last load found that the parent has not changed since the state was saved.
+     */
+    public synchronized boolean isNotModified() {
+        return loaded && notModified;
+    }
+
+    public synchronized void notModified() {
+        notModified = true;
+    }
+
+    public synchronized void set(M model) {
+        this.model = model;
+        this.loaded = model != null;
+        this.notModified = false;
+        readers.clear();
+        AzurePrefetch.invalidate();
+    }
+
+    public synchronized void invalidate() {
+        reset();
+        AzurePrefetch.invalidate();
+    }
+
+    private void reset() {
+        model = null;
+        loaded = false;
+        notModified = false;
+        readers.clear();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+import gyro.core.GyroException;
+
+/**
+ * {@link AzureChangeFeed} backed by the Resource Graph ``resourcechanges`` table, which answers for the whole
+ * subscription with one query but only keeps {@link #RETENTION} of history.
+ */
+public class ResourceGraphChangeFeed implements AzureChangeFeed {
+
+    static final Duration RETENTION = Duration.ofDays(14);
+
+    private static final String QUERY = "resourcechanges"
+        + " | extend changeTime = todatetime(properties.changeAttributes.timestamp)"
+        + " | where changeTime >= datetime(%s) and changeTime <= datetime(%s)"
+        + " | summarize changeTime = max(changeTime) by targetResourceId = tostring(properties.targetResourceId)";
+
+    private final AzureResourceGraph resourceGraph;
+
+    public ResourceGraphChangeFeed(AzureResourceGraph resourceGraph) {
+        this.resourceGraph = resourceGraph;
+    }
+
+    @Override
+    public Duration retention() {
+        return RETENTION;
+    }
+
+    @Override
+    public Map<String, OffsetDateTime> changedResources(OffsetDateTime since, OffsetDateTime until) {
+        if (since.isBefore(until.minus(RETENTION))) {
+            throw new GyroException("The previous run is older than the resource graph change history.");
+        }
+
+        Map<String, OffsetDateTime> changes = new HashMap<>();
+
+        for (Map<String, Object> row : resourceGraph.query(String.format(
+            QUERY,
+            since.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME),
+            until.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME)))) {
+
+            Object id = row.get("targetResourceId");
+
+            if (id != null) {
+                changes.merge(id.toString().toLowerCase(), changeTime(row.get("changeTime"), until), (a, b) ->
+                    a.isAfter(b) ? a : b);
+            }
+        }
+
+        return changes;
+    }
+
+    // A change without a readable time counts as the newest possible change.
+    private static OffsetDateTime changeTime(Object value, OffsetDateTime until) {
+        try {
+            return value != null ? OffsetDateTime.parse(value.toString()) : until;
+
+        } catch (DateTimeParseException error) {
+            return until;
+        }
+    }
+}
@@ -28,12 +28,12 @@ import com.azure.resourcemanager.authorization.models.ActiveDirectoryGroup;
 import com.azure.resourcemanager.authorization.models.ActiveDirectoryUser;
 import com.azure.resourcemanager.authorization.models.BuiltInRole;
 import com.azure.resourcemanager.authorization.models.RoleAssignment;
+import gyro.azure.AzureBackoff;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.core.GyroException;
 import gyro.core.GyroUI;
 import gyro.core.Type;
-import gyro.core.Wait;
 import gyro.core.resource.Output;
 import gyro.core.resource.Resource;
 import gyro.core.scope.State;
@@ -229,9 +229,8 @@ public class RoleAssignmentResource extends AzureResource implements Copyable<Ro
         } catch (OdataErrorMainException ex) {
 
             try {
-                Wait.atMost(2, TimeUnit.MINUTES)
-                    .prompt(false)
-                    .checkEvery(20, TimeUnit.SECONDS)
+                AzureBackoff.atMost(2, TimeUnit.MINUTES)
+                    .maxInterval(20, TimeUnit.SECONDS)
                     .until(() -> client.accessManagement().roleAssignments().getByScope(getScope(), getName()) != null);
 
                 roleAssignment = client.accessManagement().roleAssignments().getByScope(getScope(), getName());
@@ -165,6 +165,10 @@ public class CdnProfileResource extends AzureResource implements Copyable<CdnPro
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         CdnProfile cdnProfile = client.cdnProfiles().getById(getId());
@@ -212,6 +212,10 @@ public class CommunicationServiceResource extends AzureResource
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         CommunicationManager client = createClient(CommunicationManager.class);
 
         com.azure.resourcemanager.communication.models.CommunicationServiceResource service =
@@ -264,7 +268,7 @@ public class CommunicationServiceResource extends AzureResource
             if (ex.getMessage() != null && ex.getMessage().contains("InvalidLinkedDomains")) {
                 // Domains should be added but the API will error out in case the domains were not verified.
                 // The refresh will only keep added domains in the state
-                refresh();
+                doRefresh();
 
             } else {
                 throw ex;
@@ -290,7 +294,7 @@ public class CommunicationServiceResource extends AzureResource
             if (ex.getMessage() != null && ex.getMessage().contains("InvalidLinkedDomains")) {
                 // Domains should be added but the API will error out in case the domains were not verified.
                 // The refresh will only keep added domains in the state
-                refresh();
+                doRefresh();
 
             } else {
                 throw ex;
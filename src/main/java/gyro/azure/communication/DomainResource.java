@@ -214,6 +214,10 @@ public class DomainResource extends AzureResource
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         CommunicationManager client = createClient(CommunicationManager.class);
 
         com.azure.resourcemanager.communication.models.DomainResource domain = client.domains().getById(getId());
@@ -143,6 +143,10 @@ public class EmailServiceResource extends AzureResource
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         CommunicationManager client = createClient(CommunicationManager.class);
 
         com.azure.resourcemanager.communication.models.EmailServiceResource service = client.emailServices()
@@ -24,6 +24,8 @@ import com.azure.core.management.Region;
 import com.azure.resourcemanager.AzureResourceManager;
 import com.azure.resourcemanager.compute.models.AvailabilitySet;
 import com.azure.resourcemanager.compute.models.AvailabilitySetSkuTypes;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -175,9 +177,18 @@ public class AvailabilitySetResource extends AzureResource implements Copyable<A
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        AvailabilitySet availabilitySet = client.availabilitySets().getById(getId());
+        AvailabilitySet availabilitySet = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            AvailabilitySet.class,
+            getId(),
+            () -> client.availabilitySets().getById(getId()));
 
         if (availabilitySet == null) {
             return false;
@@ -190,6 +201,8 @@ public class AvailabilitySetResource extends AzureResource implements Copyable<A
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         AvailabilitySet availabilitySet = client.availabilitySets().define(getName())
@@ -206,6 +219,8 @@ public class AvailabilitySetResource extends AzureResource implements Copyable<A
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         if (changedFieldNames.contains("sku") && AvailabilitySetSkuTypes.fromString(getSku())
@@ -223,6 +238,8 @@ public class AvailabilitySetResource extends AzureResource implements Copyable<A
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.availabilitySets().deleteById(getId());
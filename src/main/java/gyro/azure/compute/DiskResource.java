@@ -29,6 +29,8 @@ import com.azure.resourcemanager.compute.models.DiskSkuTypes;
 import com.azure.resourcemanager.compute.models.DiskStorageAccountTypes;
 import com.azure.resourcemanager.compute.models.OperatingSystemTypes;
 import com.psddev.dari.util.ObjectUtils;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -221,9 +223,18 @@ public class DiskResource extends AzureResource implements Copyable<Disk> {
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        Disk disk = client.disks().getById(getId());
+        Disk disk = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            Disk.class,
+            getId(),
+            () -> client.disks().getById(getId()));
 
         if (disk == null) {
             return false;
@@ -236,6 +247,8 @@ public class DiskResource extends AzureResource implements Copyable<Disk> {
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         Disk.DefinitionStages.WithDiskSource diskDefWithoutData = client.disks()
@@ -291,6 +304,8 @@ public class DiskResource extends AzureResource implements Copyable<Disk> {
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         Disk disk = client.disks().getById(getId());
@@ -318,6 +333,8 @@ public class DiskResource extends AzureResource implements Copyable<Disk> {
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.disks().deleteById(getId());
@@ -0,0 +1,438 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure.compute;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import com.azure.core.util.Context;
+import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.compute.fluent.VirtualMachineScaleSetsClient;
+import com.azure.resourcemanager.compute.models.PowerState;
+import com.azure.resourcemanager.compute.models.VirtualMachineHealthStatus;
+import com.azure.resourcemanager.compute.models.VirtualMachineScaleSet;
+import com.azure.resourcemanager.compute.models.VirtualMachineScaleSetReimageParameters;
+import com.azure.resourcemanager.compute.models.VirtualMachineScaleSetVM;
+import com.azure.resourcemanager.compute.models.VirtualMachineScaleSetVMExpandType;
+import com.azure.resourcemanager.compute.models.VirtualMachineScaleSetVMInstanceRequiredIDs;
+import com.azure.resourcemanager.network.fluent.models.NetworkInterfaceIpConfigurationInner;
+import com.azure.resourcemanager.network.models.ApplicationGateway;
+import com.azure.resourcemanager.network.models.ApplicationGatewayBackendHealth;
+import com.azure.resourcemanager.network.models.ApplicationGatewayBackendHealthStatus;
+import com.azure.resourcemanager.network.models.ApplicationGatewayBackendHttpConfigurationHealth;
+import com.azure.resourcemanager.network.models.ApplicationGatewayBackendServerHealth;
+import gyro.azure.network.ApplicationGatewayResource;
+import gyro.core.GyroException;
+import gyro.core.GyroUI;
+import gyro.core.Wait;
+import gyro.core.resource.Diffable;
+import gyro.core.resource.Updatable;
+import gyro.core.validation.Range;
+import gyro.core.validation.ValidStrings;
+import gyro.core.validation.ValidationError;
+
+/**
+ * Rolls a changed scale set model out to the instances that are not on it yet.
+ *
+ * After the scale set is updated, its outdated instances are upgraded, or upgraded and reimaged, in batches. Each
+ * batch is a single request for all of its instances, so they are rolled in parallel. Before the first batch and
+ * after each one the health gate must pass within ``health-timeout`` seconds, otherwise the roll-out stops and the
+ * remaining instances are left on the old model. The next refresh counts them in ``outdated-instances``, so the next
+ * run resumes the roll-out.
+ *
+ * Example
+ * -------
+ *
+ * .. code-block:: gyro
+ *
+ *     rolling-upgrade
+ *         mode: "upgrade"
+ *         batch-percentage: 10
+ *         max-unhealthy-percentage: 5
+ *         health-check: "application-gateway"
+ *         application-gateway: $(azure::application-gateway application-gateway-example)
+ *     end
+ */
+public class RollingUpgrade extends Diffable {
+
+    private static final String HEALTHY = "HealthState/healthy";
+
+    private String mode;
+    private Integer batchSize;
+    private Integer batchPercentage;
+    private Integer maxUnhealthyPercentage;
+    private String healthCheck;
+    private ApplicationGatewayResource applicationGateway;
+    private Integer healthTimeout;
+    private Integer pauseBetweenBatches;
+    private Integer outdatedInstances;
+
+    /**
+     * How outdated instances are rolled. ``upgrade`` applies the latest model and ``reimage`` also reimages the
+     * instances afterwards. Defaults to ``upgrade``.
+     */
+    @Updatable
+    @ValidStrings({ "upgrade", "reimage" })
+    public String getMode() {
+        if (mode == null) {
+            mode = "upgrade";
+        }
+
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * The number of instances rolled per batch. Cannot be set with ``batch-percentage``.
+     */
+    @Updatable
+    @Range(min = 1, max = 1000)
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * The percentage of the scale set's instances rolled per batch. Defaults to ``20`` when ``batch-size`` is not
+     * set.
+     */
+    @Updatable
+    @Range(min = 1, max = 100)
+    public Integer getBatchPercentage() {
+        if (batchPercentage == null && getBatchSize() == null) {
+            batchPercentage = 20;
+        }
+
+        return batchPercentage;
+    }
+
+    public void setBatchPercentage(Integer batchPercentage) {
+        this.batchPercentage = batchPercentage;
+    }
+
+    /**
+     * The percentage of the scale set's instances that may be unhealthy at the same time for the health gate to
+     * pass. Defaults to ``20``.
+     */
+    @Updatable
+    @Range(min = 0, max = 100)
+    public Integer getMaxUnhealthyPercentage() {
+        if (maxUnhealthyPercentage == null) {
+            maxUnhealthyPercentage = 20;
+        }
+
+        return maxUnhealthyPercentage;
+    }
+
+    public void setMaxUnhealthyPercentage(Integer maxUnhealthyPercentage) {
+        this.maxUnhealthyPercentage = maxUnhealthyPercentage;
+    }
+
+    /**
+     * How instance health is checked. ``load-balancer-probe`` uses the health the scale set reports for each
+     * instance from its load balancer probe or application health extension, ``application-gateway`` uses the
+     * backend health of ``application-gateway`` and ``none`` skips the health gate. Defaults to ``none``.
+     */
+    @Updatable
+    @ValidStrings({ "none", "load-balancer-probe", "application-gateway" })
+    public String getHealthCheck() {
+        if (healthCheck == null) {
+            healthCheck = "none";
+        }
+
+        return healthCheck;
+    }
+
+    public void setHealthCheck(String healthCheck) {
+        this.healthCheck = healthCheck;
+    }
+
+    /**
+     * The Application Gateway whose backend health is checked. Required if ``health-check`` is
+     * ``application-gateway``.
+     */
+    @Updatable
+    public ApplicationGatewayResource getApplicationGateway() {
+        return applicationGateway;
+    }
+
+    public void setApplicationGateway(ApplicationGatewayResource applicationGateway) {
+        this.applicationGateway = applicationGateway;
+    }
+
+    /**
+     * The number of seconds to wait for the health gate to pass after each batch. Defaults to ``600``.
+     */
+    @Updatable
+    @Range(min = 30, max = 7200)
+    public Integer getHealthTimeout() {
+        if (healthTimeout == null) {
+            healthTimeout = 600;
+        }
+
+        return healthTimeout;
+    }
+
+    public void setHealthTimeout(Integer healthTimeout) {
+        this.healthTimeout = healthTimeout;
+    }
+
+    /**
+     * The number of seconds to wait between batches once the health gate has passed. Defaults to ``0``.
+     */
+    @Updatable
+    @Range(min = 0, max = 3600)
+    public Integer getPauseBetweenBatches() {
+        if (pauseBetweenBatches == null) {
+            pauseBetweenBatches = 0;
+        }
+
+        return pauseBetweenBatches;
+    }
+
+    public void setPauseBetweenBatches(Integer pauseBetweenBatches) {
+        this.pauseBetweenBatches = pauseBetweenBatches;
+    }
+
+    /**
+     * The number of instances that are not on the latest scale set model. It is always ``0`` in the configuration
+     * and filled in by refresh, so a roll-out that stopped partway shows up as a change and the next run resumes it.
+     */
+    @Updatable
+    public Integer getOutdatedInstances() {
+        if (outdatedInstances == null) {
+            outdatedInstances = 0;
+        }
+
+        return outdatedInstances;
+    }
+
+    public void setOutdatedInstances(Integer outdatedInstances) {
+        this.outdatedInstances = outdatedInstances;
+    }
+
+    @Override
+    public String primaryKey() {
+        return "rolling-upgrade";
+    }
+
+    @Override
+    public List<ValidationError> validate() {
+        List<ValidationError> errors = new ArrayList<>();
+
+        if (batchSize != null && batchPercentage != null) {
+            errors.add(new ValidationError(
+                this,
+                null,
+                "Only one of 'batch-size' or 'batch-percentage' can be set."));
+        }
+
+        if ("application-gateway".equals(getHealthCheck()) && getApplicationGateway() == null) {
+            errors.add(new ValidationError(
+                this,
+                "application-gateway",
+                "'application-gateway' is required when 'health-check' is set to 'application-gateway'."));
+        }
+
+        return errors;
+    }
+
+    /**
+     * Rolls the latest model of {@code scaleSet} out to its outdated instances, batch by batch.
+     */
+    void run(GyroUI ui, AzureResourceManager client, VirtualMachineScaleSet scaleSet) {
+        List<VirtualMachineScaleSetVM> instances = listInstances(scaleSet);
+
+        List<String> outdated = outdatedInstanceIds(instances);
+
+        if (outdated.isEmpty()) {
+            return;
+        }
+
+        int batchSize = getBatchSize() != null
+            ? getBatchSize()
+            : Math.max(1, (instances.size() * getBatchPercentage() + 99) / 100);
+
+        int maxUnhealthy = instances.size() * getMaxUnhealthyPercentage() / 100;
+
+        VirtualMachineScaleSetsClient scaleSets = client.virtualMachineScaleSets()
+            .manager()
+            .serviceClient()
+            .getVirtualMachineScaleSets();
+
+        waitUntilHealthy(client, scaleSet, maxUnhealthy, Collections.emptyList());
+
+        for (int start = 0; start < outdated.size(); start += batchSize) {
+            List<String> batch = outdated.subList(start, Math.min(start + batchSize, outdated.size()));
+
+            ui.write(
+                "\n@|bold,blue Rolling|@ instances [%s] of scale set [%s] (%d of %d)",
+                String.join(", ", batch),
+                scaleSet.name(),
+                start + batch.size(),
+                outdated.size());
+
+            scaleSets.updateInstances(
+                scaleSet.resourceGroupName(),
+                scaleSet.name(),
+                new VirtualMachineScaleSetVMInstanceRequiredIDs().withInstanceIds(batch));
+
+            if ("reimage".equals(getMode())) {
+                scaleSets.reimage(
+                    scaleSet.resourceGroupName(),
+                    scaleSet.name(),
+                    new VirtualMachineScaleSetReimageParameters().withInstanceIds(batch),
+                    Context.NONE);
+            }
+
+            waitUntilHealthy(client, scaleSet, maxUnhealthy, batch);
+
+            if (getPauseBetweenBatches() > 0 && start + batchSize < outdated.size()) {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(getPauseBetweenBatches()));
+
+                } catch (InterruptedException error) {
+                    Thread.currentThread().interrupt();
+                    throw new GyroException("Interrupted while rolling the scale set instances!", error);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of instances of {@code scaleSet} that are not on its latest model.
+     */
+    static int countOutdatedInstances(VirtualMachineScaleSet scaleSet) {
+        return outdatedInstanceIds(listInstances(scaleSet)).size();
+    }
+
+    private static List<String> outdatedInstanceIds(List<VirtualMachineScaleSetVM> instances) {
+        return instances.stream()
+            .filter(instance -> !Boolean.TRUE.equals(instance.isLatestScaleSetUpdateApplied()))
+            .map(VirtualMachineScaleSetVM::instanceId)
+            .sorted(Comparator.comparing(String::length).thenComparing(Comparator.naturalOrder()))
+            .collect(Collectors.toList());
+    }
+
+    private void waitUntilHealthy(
+        AzureResourceManager client,
+        VirtualMachineScaleSet scaleSet,
+        int maxUnhealthy,
+        List<String> batch) {
+
+        if ("none".equals(getHealthCheck())) {
+            return;
+        }
+
+        AtomicReference<Set<String>> unhealthy = new AtomicReference<>();
+
+        Wait.atMost(getHealthTimeout(), TimeUnit.SECONDS)
+            .prompt(false)
+            .checkEvery(15, TimeUnit.SECONDS)
+            .until(() -> {
+                unhealthy.set(unhealthyInstances(client, scaleSet));
+                return unhealthy.get().size() <= maxUnhealthy;
+            });
+
+        if (unhealthy.get().size() > maxUnhealthy) {
+            throw new GyroException(String.format(
+                "Stopped rolling scale set [%s]%s: instances [%s] are still unhealthy after %d seconds!",
+                scaleSet.name(),
+                batch.isEmpty() ? "" : String.format(" after instances [%s]", String.join(", ", batch)),
+                String.join(", ", unhealthy.get()),
+                getHealthTimeout()));
+        }
+    }
+
+    private Set<String> unhealthyInstances(AzureResourceManager client, VirtualMachineScaleSet scaleSet) {
+        if ("application-gateway".equals(getHealthCheck())) {
+            Set<String> upAddresses = upAddresses(client.applicationGateways()
+                .getById(getApplicationGateway().getId()));
+
+            Map<String, NetworkInterfaceIpConfigurationInner> ipConfigs = VMScaleSetVirtualMachine
+                .primaryIpConfigurations(scaleSet.listNetworkInterfaces().stream());
+
+            return listInstances(scaleSet).stream()
+                .filter(instance -> {
+                    NetworkInterfaceIpConfigurationInner ipConfig = ipConfigs.get(instance.id().toLowerCase());
+                    return ipConfig == null || !upAddresses.contains(ipConfig.privateIpAddress());
+                })
+                .map(VirtualMachineScaleSetVM::instanceId)
+                .collect(Collectors.toCollection(HashSet::new));
+        }
+
+        return listInstances(scaleSet).stream()
+            .filter(instance -> !isHealthy(instance))
+            .map(VirtualMachineScaleSetVM::instanceId)
+            .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static List<VirtualMachineScaleSetVM> listInstances(VirtualMachineScaleSet scaleSet) {
+        return scaleSet.virtualMachines()
+            .list(null, VirtualMachineScaleSetVMExpandType.INSTANCE_VIEW)
+            .stream()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Instances without a reported health, for example when the scale set has no health probe, count as healthy
+     * once they are running.
+     */
+    private static boolean isHealthy(VirtualMachineScaleSetVM instance) {
+        VirtualMachineHealthStatus health = instance.instanceView() != null
+            ? instance.instanceView().vmHealth()
+            : null;
+
+        if (health == null || health.status() == null) {
+            return PowerState.RUNNING.equals(instance.powerState());
+        }
+
+        return HEALTHY.equalsIgnoreCase(health.status().code());
+    }
+
+    private static Set<String> upAddresses(ApplicationGateway gateway) {
+        Set<String> addresses = new HashSet<>();
+
+        for (ApplicationGatewayBackendHealth backendHealth : gateway.checkBackendHealth().values()) {
+            for (ApplicationGatewayBackendHttpConfigurationHealth configHealth
+                : backendHealth.httpConfigurationHealths().values()) {
+
+                for (ApplicationGatewayBackendServerHealth serverHealth : configHealth.serverHealths().values()) {
+                    if (ApplicationGatewayBackendHealthStatus.UP.equals(serverHealth.status())) {
+                        addresses.add(serverHealth.ipAddress());
+                    }
+                }
+            }
+        }
+
+        return addresses;
+    }
+}
@@ -27,6 +27,8 @@ import com.azure.resourcemanager.compute.models.CreationSourceType;
 import com.azure.resourcemanager.compute.models.Snapshot;
 import com.azure.resourcemanager.compute.models.SnapshotSkuType;
 import com.azure.resourcemanager.compute.models.SnapshotStorageAccountTypes;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -253,9 +255,18 @@ public class SnapshotResource extends AzureResource implements Copyable<Snapshot
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        Snapshot snapshot = client.snapshots().getById(getId());
+        Snapshot snapshot = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            Snapshot.class,
+            getId(),
+            () -> client.snapshots().getById(getId()));
 
         if (snapshot == null) {
             return false;
@@ -268,6 +279,8 @@ public class SnapshotResource extends AzureResource implements Copyable<Snapshot
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         Snapshot.DefinitionStages.WithSnapshotSource withSnapshotSource = client.snapshots().define(getName())
@@ -329,6 +342,8 @@ public class SnapshotResource extends AzureResource implements Copyable<Snapshot
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.snapshots().getById(getId())
@@ -340,6 +355,8 @@ public class SnapshotResource extends AzureResource implements Copyable<Snapshot
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.snapshots().deleteById(getId());
@@ -17,26 +17,49 @@
 package gyro.azure.compute;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import com.azure.core.http.rest.PagedIterable;
+import com.azure.core.http.rest.PagedResponse;
 import com.azure.core.management.Region;
+import com.azure.core.management.polling.PollResult;
+import com.azure.core.util.polling.SyncPoller;
 import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.compute.fluent.ComputeManagementClient;
+import com.azure.resourcemanager.compute.fluent.models.VirtualMachineScaleSetInner;
 import com.azure.resourcemanager.compute.models.CachingTypes;
 import com.azure.resourcemanager.compute.models.KnownLinuxVirtualMachineImage;
 import com.azure.resourcemanager.compute.models.KnownWindowsVirtualMachineImage;
 import com.azure.resourcemanager.compute.models.ProximityPlacementGroupType;
+import com.azure.resourcemanager.compute.models.Sku;
 import com.azure.resourcemanager.compute.models.VirtualMachineEvictionPolicyTypes;
 import com.azure.resourcemanager.compute.models.VirtualMachineScaleSet;
 import com.azure.resourcemanager.compute.models.VirtualMachineScaleSetSkuTypes;
+import com.azure.resourcemanager.compute.models.VirtualMachineScaleSetUpdate;
 import com.azure.resourcemanager.compute.models.VirtualMachineScaleSetVM;
+import com.azure.resourcemanager.compute.models.VirtualMachineScaleSetVMExpandType;
+import com.azure.resourcemanager.network.fluent.models.NetworkInterfaceIpConfigurationInner;
 import com.psddev.dari.util.ObjectUtils;
+import gyro.azure.AzureDetachedCreate;
+import gyro.azure.AzureOperations;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.identity.IdentityResource;
@@ -111,6 +134,12 @@ import gyro.core.validation.ValidStrings;
  *             ]
  *         end
  *
+ *         rolling-upgrade
+ *             batch-percentage: 25
+ *             max-unhealthy-percentage: 10
+ *             health-check: "load-balancer-probe"
+ *         end
+ *
  *         tags: {
  *             Name: "scale-set-example"
  *         }
@@ -119,6 +148,9 @@ import gyro.core.validation.ValidStrings;
 @Type("scale-set")
 public class VMScaleSetResource extends AzureResource implements GyroInstances, Copyable<VirtualMachineScaleSet> {
 
+    private static final int INSTANCE_PAGE_CONCURRENCY = 4;
+    private static final int SCALE_PROGRESS_INTERVAL = 15;
+
     private String name;
     private ResourceGroupResource resourceGroup;
     private String skuName;
@@ -166,6 +198,9 @@ public class VMScaleSetResource extends AzureResource implements GyroInstances,
     private Boolean enableSystemManagedServiceIdentity;
     private String SystemManagedServiceIdentityPrincipalId;
     private Set<IdentityResource> identities;
+    private RollingUpgrade rollingUpgrade;
+    private Boolean detachedCreate;
+    private String provisioningState;
 
     /**
      * The name of the Scale Set.
@@ -759,6 +794,51 @@ public class VMScaleSetResource extends AzureResource implements GyroInstances,
         this.identities = identities;
     }
 
+    /**
+     * How a changed model is rolled out to the existing instances. If not set, instances keep their current model
+     * until they are upgraded or reimaged outside Gyro.
+     *
+     * @subresource gyro.azure.compute.RollingUpgrade
+     */
+    @Updatable
+    public RollingUpgrade getRollingUpgrade() {
+        return rollingUpgrade;
+    }
+
+    public void setRollingUpgrade(RollingUpgrade rollingUpgrade) {
+        this.rollingUpgrade = rollingUpgrade;
+    }
+
+    /**
+     * When ``true``, create returns as soon as Azure has accepted the Scale Set instead of waiting for its instances
+     * to be provisioned, and the next refresh fills in the outputs. A Scale Set whose provisioning failed is created
+     * again on the next run. Defaults to ``false``.
+     */
+    @Updatable
+    public Boolean getDetachedCreate() {
+        if (detachedCreate == null) {
+            detachedCreate = false;
+        }
+
+        return detachedCreate;
+    }
+
+    public void setDetachedCreate(Boolean detachedCreate) {
+        this.detachedCreate = detachedCreate;
+    }
+
+    /**
+     * The provisioning state of the Scale Set.
+     */
+    @Output
+    public String getProvisioningState() {
+        return provisioningState;
+    }
+
+    public void setProvisioningState(String provisioningState) {
+        this.provisioningState = provisioningState;
+    }
+
     /**
      * The ID of the Scale Set.
      */
@@ -787,6 +867,7 @@ public class VMScaleSetResource extends AzureResource implements GyroInstances,
         try {
             setName(scaleSet.name());
             setId(scaleSet.id());
+            setProvisioningState(scaleSet.innerModel().provisioningState());
             setResourceGroup(findById(ResourceGroupResource.class, scaleSet.resourceGroupName()));
             setSkuName(scaleSet.sku().sku().name());
             setSkuTier(scaleSet.sku().sku().tier());
@@ -858,9 +939,18 @@ public class VMScaleSetResource extends AzureResource implements GyroInstances,
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        VirtualMachineScaleSet scaleSet = client.virtualMachineScaleSets().getById(getId());
+        VirtualMachineScaleSet scaleSet = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            VirtualMachineScaleSet.class,
+            getId(),
+            () -> client.virtualMachineScaleSets().getById(getId()));
 
         if (scaleSet == null) {
             return false;
@@ -868,11 +958,17 @@ public class VMScaleSetResource extends AzureResource implements GyroInstances,
 
         copyFrom(scaleSet);
 
-        return true;
+        if (getRollingUpgrade() != null) {
+            getRollingUpgrade().setOutdatedInstances(RollingUpgrade.countOutdatedInstances(scaleSet));
+        }
+
+        return !(getDetachedCreate() && AzureDetachedCreate.isFailed(getProvisioningState()));
     }
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         VirtualMachineScaleSet.DefinitionStages.WithProximityPlacementGroup withProximityPlacementGroup = client.virtualMachineScaleSets()
@@ -1108,14 +1204,51 @@ public class VMScaleSetResource extends AzureResource implements GyroInstances,
                 .getById(identity.getId()));
         }
 
-        VirtualMachineScaleSet scaleSet = finalStage.create();
+        VirtualMachineScaleSet scaleSet;
+
+        if (getDetachedCreate()) {
+            scaleSet = AzureDetachedCreate.begin(
+                String.format("creation of scale set [%s]", getName()),
+                finalStage.createAsync(),
+                () -> client.virtualMachineScaleSets().getByResourceGroup(getResourceGroup().getName(), getName()));
+
+        } else {
+            scaleSet = finalStage.create();
+        }
+
         setId(scaleSet.id());
+        setProvisioningState(scaleSet.innerModel().provisioningState());
     }
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
+        // detached-create only affects create, so it never needs a call to Azure.
+        changedFieldNames = new HashSet<>(changedFieldNames);
+        changedFieldNames.remove("detached-create");
+
+        if (changedFieldNames.isEmpty()) {
+            return;
+        }
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
+        if (changedFieldNames.size() == 1 && changedFieldNames.contains("capacity")) {
+            scale(ui, client);
+            return;
+        }
+
+        // Only the roll-out settings changed, or a roll-out that stopped partway left outdated instances, so the
+        // model is already current and only the roll-out has to run.
+        if (changedFieldNames.size() == 1 && changedFieldNames.contains("rolling-upgrade")) {
+            if (getRollingUpgrade() != null) {
+                getRollingUpgrade().run(ui, client, client.virtualMachineScaleSets().getById(getId()));
+            }
+
+            return;
+        }
+
         VirtualMachineScaleSet scaleSet = client.virtualMachineScaleSets().getById(getId());
 
         VirtualMachineScaleSet.UpdateStages.WithPrimaryInternalLoadBalancer a1 = null;
@@ -1238,11 +1371,67 @@ public class VMScaleSetResource extends AzureResource implements GyroInstances,
 
         update = update.withAdditionalCapabilities(getAdditionalCapability().toAdditionalCapabilities());
 
-        update.apply();
+        scaleSet = update.apply();
+
+        if (getRollingUpgrade() != null) {
+            getRollingUpgrade().run(ui, client, scaleSet);
+        }
+    }
+
+    /**
+     * Changes only the capacity, with a PATCH of the scale set SKU instead of a PUT of the whole model, so none of
+     * the attached resources have to be looked up. The operation is polled by {@link AzureOperations}, and the
+     * number of instances that have finished provisioning is written every {@value #SCALE_PROGRESS_INTERVAL}
+     * seconds until it completes.
+     */
+    private void scale(GyroUI ui, AzureResourceManager client) {
+        ComputeManagementClient compute = client.virtualMachineScaleSets().manager().serviceClient();
+
+        SyncPoller<PollResult<VirtualMachineScaleSetInner>, VirtualMachineScaleSetInner> poller = compute
+            .getVirtualMachineScaleSets()
+            .beginUpdate(
+                getResourceGroup().getName(),
+                getName(),
+                new VirtualMachineScaleSetUpdate().withSku(new Sku()
+                    .withName(getSkuName())
+                    .withTier(getSkuTier())
+                    .withCapacity(getCapacity().longValue())));
+
+        String description = String.format("scaling of scale set [%s]", getName());
+        CompletableFuture<VirtualMachineScaleSetInner> operation = AzureOperations.submit(description, poller);
+
+        while (!operation.isDone()) {
+            long ready = compute.getVirtualMachineScaleSetVMs()
+                .list(getResourceGroup().getName(), getName())
+                .stream()
+                .filter(instance -> "Succeeded".equalsIgnoreCase(instance.provisioningState()))
+                .count();
+
+            ui.write(
+                "\n@|bold,blue Scaling|@ scale set [%s]: %d of %d instances ready",
+                getName(),
+                ready,
+                getCapacity());
+
+            try {
+                operation.get(SCALE_PROGRESS_INTERVAL, TimeUnit.SECONDS);
+
+            } catch (TimeoutException | ExecutionException error) {
+                // Still running, or failed and reported below.
+
+            } catch (InterruptedException error) {
+                Thread.currentThread().interrupt();
+                throw new GyroException("Interrupted while scaling the scale set!", error);
+            }
+        }
+
+        AzureOperations.await(description, operation, Duration.ZERO);
     }
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.virtualMachineScaleSets().deleteById(getId());
@@ -1250,25 +1439,76 @@ public class VMScaleSetResource extends AzureResource implements GyroInstances,
 
     @Override
     public List<GyroInstance> getInstances() {
+        return getInstances(true);
+    }
+
+    /**
+     * Lists the instances of the scale set in a single pass over the paged VM list.
+     *
+     * The network interfaces of all instances are listed once for the scale set instead of once per instance, and
+     * up to {@value #INSTANCE_PAGE_CONCURRENCY} pages are mapped in parallel while the next page is being fetched.
+     * When {@code includeInstanceView} is set the power state comes back with each page, otherwise each instance
+     * fetches its own instance view.
+     */
+    public List<GyroInstance> getInstances(boolean includeInstanceView) {
         List<GyroInstance> instances = new ArrayList<>();
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         VirtualMachineScaleSet virtualMachineScaleSet = client.virtualMachineScaleSets().getById(getId());
 
-        if (virtualMachineScaleSet != null) {
-            PagedIterable<VirtualMachineScaleSetVM> list = virtualMachineScaleSet.virtualMachines().list();
-            List<String> instanceIds = list.stream()
-                .map(VirtualMachineScaleSetVM::instanceId)
-                .collect(Collectors.toList());
-
-            instances.addAll(list.stream()
-                .map(o -> {
-                    VMScaleSetVirtualMachine vmResource = newSubresource(VMScaleSetVirtualMachine.class);
-                    vmResource.copyFrom(o);
-                    return vmResource;
-                }).collect(Collectors.toList()));
+        if (virtualMachineScaleSet == null) {
+            return instances;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(INSTANCE_PAGE_CONCURRENCY + 1);
+
+        try {
+            Future<Map<String, NetworkInterfaceIpConfigurationInner>> ipConfigs = executor.submit(
+                () -> VMScaleSetVirtualMachine.primaryIpConfigurations(
+                    virtualMachineScaleSet.listNetworkInterfaces().stream()));
+
+            PagedIterable<VirtualMachineScaleSetVM> list = includeInstanceView
+                ? virtualMachineScaleSet.virtualMachines().list(null, VirtualMachineScaleSetVMExpandType.INSTANCE_VIEW)
+                : virtualMachineScaleSet.virtualMachines().list();
+
+            Deque<Future<List<VMScaleSetVirtualMachine>>> pending = new ArrayDeque<>();
+
+            for (PagedResponse<VirtualMachineScaleSetVM> page : list.iterableByPage()) {
+                List<VirtualMachineScaleSetVM> models = page.getValue();
+                pending.add(executor.submit(() -> toInstances(models, ipConfigs.get())));
+
+                if (pending.size() >= INSTANCE_PAGE_CONCURRENCY) {
+                    instances.addAll(pending.poll().get());
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                instances.addAll(pending.poll().get());
+            }
+
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new GyroException("Interrupted while listing the scale set instances!", error);
+
+        } catch (ExecutionException error) {
+            throw new GyroException(error.getCause().getMessage(), error.getCause());
+
+        } finally {
+            executor.shutdownNow();
         }
 
         return instances;
     }
+
+    private List<VMScaleSetVirtualMachine> toInstances(
+        List<VirtualMachineScaleSetVM> models,
+        Map<String, NetworkInterfaceIpConfigurationInner> ipConfigs) {
+
+        return models.stream()
+            .map(o -> {
+                VMScaleSetVirtualMachine vmResource = newSubresource(VMScaleSetVirtualMachine.class);
+                vmResource.copyFrom(o, o.id() != null ? ipConfigs.get(o.id().toLowerCase()) : null);
+                return vmResource;
+            }).collect(Collectors.toList());
+    }
 }
@@ -314,6 +314,10 @@ public class VMScaleSetScalingResource extends AzureResource implements Copyable
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         AutoscaleSetting autoscaleSetting = client.autoscaleSettings().getById(getId());
@@ -1,8 +1,12 @@
 package gyro.azure.compute;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import com.azure.resourcemanager.compute.models.VirtualMachineScaleSetVM;
+import com.azure.resourcemanager.network.models.VirtualMachineScaleSetNetworkInterface;
 import com.azure.resourcemanager.network.fluent.models.NetworkInterfaceIpConfigurationInner;
 import gyro.azure.Copyable;
 import gyro.core.GyroInstance;
@@ -67,25 +71,51 @@ public class VMScaleSetVirtualMachine extends Diffable implements GyroInstance,
 
     @Override
     public void copyFrom(VirtualMachineScaleSetVM model) {
+        copyFrom(model, primaryIpConfiguration(model.listNetworkInterfaces().stream()));
+    }
+
+    void copyFrom(VirtualMachineScaleSetVM model, NetworkInterfaceIpConfigurationInner ipConfig) {
         setName(model.computerName());
         setInstanceId(model.instanceId());
         setState(model.powerState().toString());
         setLocation(model.innerModel().location());
-        //model
-        NetworkInterfaceIpConfigurationInner ipConfig = model.listNetworkInterfaces()
-            .stream()
+
+        if (ipConfig != null) {
+            setPrivateIp(ipConfig.privateIpAddress());
+            setPublicIp(ipConfig.publicIpAddress() != null ? ipConfig.publicIpAddress().ipAddress() : null);
+        }
+
+    }
+
+    static NetworkInterfaceIpConfigurationInner primaryIpConfiguration(
+        Stream<VirtualMachineScaleSetNetworkInterface> nics) {
+
+        return nics
             .filter(nic -> nic.name().equals("primary-nic-cfg"))
             .map(nic -> nic.innerModel().ipConfigurations())
             .flatMap(Collection::stream)
             .filter(NetworkInterfaceIpConfigurationInner::primary)
             .findFirst()
             .orElse(null);
+    }
 
-        if (ipConfig != null) {
-            setPrivateIp(ipConfig.privateIpAddress());
-            setPublicIp(ipConfig.publicIpAddress() != null ? ipConfig.publicIpAddress().ipAddress() : null);
-        }
+    /**
+     * Maps the lower-cased VM ID of each scale set instance to its primary IP configuration.
+     */
+    static Map<String, NetworkInterfaceIpConfigurationInner> primaryIpConfigurations(
+        Stream<VirtualMachineScaleSetNetworkInterface> nics) {
+
+        Map<String, NetworkInterfaceIpConfigurationInner> ipConfigs = new HashMap<>();
+
+        nics.filter(nic -> nic.virtualMachineId() != null).forEach(nic -> {
+            NetworkInterfaceIpConfigurationInner ipConfig = primaryIpConfiguration(Stream.of(nic));
+
+            if (ipConfig != null) {
+                ipConfigs.put(nic.virtualMachineId().toLowerCase(), ipConfig);
+            }
+        });
 
+        return ipConfigs;
     }
 
     @Override
@@ -170,6 +170,10 @@ public class VirtualMachineImageResource extends AzureResource implements Copyab
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         VirtualMachineCustomImage image = client.virtualMachineCustomImages().getById(getId());
@@ -30,6 +30,7 @@ import java.util.stream.Collectors;
 import com.azure.core.management.Region;
 import com.azure.core.management.SubResource;
 import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.compute.models.AvailabilitySet;
 import com.azure.resourcemanager.compute.models.CachingTypes;
 import com.azure.resourcemanager.compute.models.Disk;
 import com.azure.resourcemanager.compute.models.InstanceViewStatus;
@@ -64,9 +65,16 @@ import com.azure.resourcemanager.compute.models.VirtualMachine.DefinitionStages.
 import com.azure.resourcemanager.compute.models.VirtualMachine.DefinitionStages.WithWindowsCreateManagedOrUnmanaged;
 import com.azure.resourcemanager.compute.models.VirtualMachine.DefinitionStages.WithWindowsCreateUnmanaged;
 import com.azure.resourcemanager.compute.models.VirtualMachineDataDisk;
+import com.azure.resourcemanager.compute.models.VirtualMachineImage;
 import com.azure.resourcemanager.compute.models.VirtualMachineSizeTypes;
+import com.azure.resourcemanager.msi.models.Identity;
+import com.azure.resourcemanager.network.models.Network;
+import com.azure.resourcemanager.network.models.NetworkInterface;
+import com.azure.resourcemanager.network.models.PublicIpAddress;
 import com.psddev.dari.util.ObjectUtils;
 import com.psddev.dari.util.StringUtils;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.identity.IdentityResource;
@@ -87,6 +95,9 @@ import gyro.core.scope.State;
 import gyro.core.validation.Required;
 import gyro.core.validation.ValidStrings;
 import gyro.core.validation.ValidationError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * Creates a virtual machine.
@@ -123,6 +134,8 @@ import gyro.core.validation.ValidationError;
 @Type("virtual-machine")
 public class VirtualMachineResource extends AzureResource implements GyroInstance, Copyable<VirtualMachine> {
 
+    private static final int DATA_DISK_CONCURRENCY = 8;
+
     private String name;
     private ResourceGroupResource resourceGroup;
     private NetworkResource network;
@@ -772,9 +785,18 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        VirtualMachine virtualMachine = client.virtualMachines().getById(getId());
+        VirtualMachine virtualMachine = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            VirtualMachine.class,
+            getId(),
+            () -> client.virtualMachines().getById(getId()));
 
         if (virtualMachine == null) {
             return false;
@@ -787,6 +809,8 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         VirtualMachine virtualMachine = doVMFluentWorkflow(createClient(AzureResourceManager.class)).create();
         setId(virtualMachine.id());
         setVmId(virtualMachine.vmId());
@@ -805,34 +829,28 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      */
     private WithCreate doVMFluentWorkflow(AzureResourceManager client) {
         WithNetwork initialVMBuilder = configureRegionAndResourceGroups(client.virtualMachines().define(getName()));
-        WithOS networkConfigured = configureNetwork(client, initialVMBuilder);
-        WithCreate osConfiguredVMBuilder = configureOS(client, networkConfigured);
+        Dependencies dependencies = resolveDependencies(client);
+        WithOS networkConfigured = configureNetwork(dependencies, initialVMBuilder);
+        WithCreate osConfiguredVMBuilder = configureOS(dependencies, networkConfigured);
 
         if (osConfiguredVMBuilder == null) {
             throw new GyroException("Invalid config.");
         }
 
-        if (!getSecondaryNetworkInterface().isEmpty()) {
-            for (NetworkInterfaceResource nic : getSecondaryNetworkInterface()) {
-                osConfiguredVMBuilder = osConfiguredVMBuilder.withExistingSecondaryNetworkInterface(
-                    client.networkInterfaces().getByResourceGroup(getResourceGroup().getName(), nic.getName())
-                );
-            }
+        for (NetworkInterface nic : dependencies.secondaryNetworkInterfaces) {
+            osConfiguredVMBuilder = osConfiguredVMBuilder.withExistingSecondaryNetworkInterface(nic);
         }
 
-        if (getAvailabilitySet() != null) {
-            osConfiguredVMBuilder = osConfiguredVMBuilder.withExistingAvailabilitySet(client.availabilitySets()
-                .getById(getAvailabilitySet().getId()));
+        if (dependencies.availabilitySet != null) {
+            osConfiguredVMBuilder = osConfiguredVMBuilder.withExistingAvailabilitySet(dependencies.availabilitySet);
         }
 
         if (getEnableSystemManagedServiceIdentity()) {
             osConfiguredVMBuilder = osConfiguredVMBuilder.withSystemAssignedManagedServiceIdentity();
         }
 
-        for (IdentityResource identity : getIdentities()) {
-            osConfiguredVMBuilder =
-                osConfiguredVMBuilder.withExistingUserAssignedManagedServiceIdentity(client.identities()
-                    .getById(identity.getId()));
+        for (Identity identity : dependencies.identities) {
+            osConfiguredVMBuilder = osConfiguredVMBuilder.withExistingUserAssignedManagedServiceIdentity(identity);
         }
 
         return osConfiguredVMBuilder
@@ -840,6 +858,74 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
             .withTags(getTags());
     }
 
+    /**
+     * Looks up every existing resource the VM definition refers to before the workflow starts. The lookups are
+     * independent of each other, so they are sent together with the async APIs and the definition is assembled
+     * after a single round trip instead of one per resource.
+     * @return {@link Dependencies} The resolved resources
+     */
+    private Dependencies resolveDependencies(AzureResourceManager client) {
+        Dependencies dependencies = new Dependencies();
+        List<Mono<?>> lookups = new ArrayList<>();
+        String resourceGroupName = getResourceGroup().getName();
+
+        if (!ObjectUtils.isBlank(getNetworkInterface())) {
+            lookups.add(client.networkInterfaces()
+                .getByResourceGroupAsync(resourceGroupName, getNetworkInterface().getName())
+                .doOnNext(nic -> dependencies.primaryNetworkInterface = nic));
+
+        } else {
+            lookups.add(client.networks()
+                .getByIdAsync(getNetwork().getId())
+                .doOnNext(network -> dependencies.network = network));
+
+            if (!ObjectUtils.isBlank(getPublicIpAddress())) {
+                lookups.add(client.publicIpAddresses()
+                    .getByResourceGroupAsync(resourceGroupName, getPublicIpAddress().getName())
+                    .doOnNext(publicIpAddress -> dependencies.publicIpAddress = publicIpAddress));
+            }
+        }
+
+        if ("specific".equals(getVmImageType())) {
+            lookups.add(Mono.fromCallable(() -> client.virtualMachineImages()
+                    .getImage(getImageRegion(), getImagePublisher(), getImageOffer(), getImageSku(), getImageVersion()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(image -> dependencies.image = image));
+
+        } else if ("specialized".equals(getVmImageType())) {
+            lookups.add(client.disks()
+                .getByIdAsync(getOsDisk().getId())
+                .doOnNext(disk -> dependencies.osDisk = disk));
+        }
+
+        if (getAvailabilitySet() != null) {
+            lookups.add(client.availabilitySets()
+                .getByIdAsync(getAvailabilitySet().getId())
+                .doOnNext(availabilitySet -> dependencies.availabilitySet = availabilitySet));
+        }
+
+        lookups.add(Flux.fromIterable(getSecondaryNetworkInterface())
+            .flatMapSequential(nic -> client.networkInterfaces()
+                .getByResourceGroupAsync(resourceGroupName, nic.getName()))
+            .collectList()
+            .doOnNext(nics -> dependencies.secondaryNetworkInterfaces = nics));
+
+        lookups.add(Flux.fromIterable(getIdentities())
+            .flatMapSequential(identity -> client.identities().getByIdAsync(identity.getId()))
+            .collectList()
+            .doOnNext(identities -> dependencies.identities = identities));
+
+        // Data disks that no longer exist are skipped, as before.
+        lookups.add(Flux.fromIterable(getDataDisks())
+            .flatMapSequential(disk -> client.disks().getByIdAsync(disk.getId()))
+            .collectList()
+            .doOnNext(disks -> dependencies.dataDisks = disks));
+
+        Mono.when(lookups).block();
+
+        return dependencies;
+    }
+
     /**
      * First step in Fluent Virtual Machine workflow.
      * Configures Azure Region and Resource Groups
@@ -856,19 +942,17 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * creates one with either a defined or generated private and public IP.
      * @return {@link WithOS} VM Definition object ready for OS configurations
      */
-    private WithOS configureNetwork(AzureResourceManager client, WithNetwork initialVMBuilder) {
+    private WithOS configureNetwork(Dependencies dependencies, WithNetwork initialVMBuilder) {
 
         WithOS networkConfigured;
 
         if (!ObjectUtils.isBlank(getNetworkInterface())) {
             networkConfigured = initialVMBuilder.withExistingPrimaryNetworkInterface(
-                client.networkInterfaces().getByResourceGroup(
-                    getResourceGroup().getName(), getNetworkInterface().getName()
-                ));
+                dependencies.primaryNetworkInterface);
         } else {
 
             WithPrivateIP withPrivateIP = initialVMBuilder
-                .withExistingPrimaryNetwork(client.networks().getById(getNetwork().getId()))
+                .withExistingPrimaryNetwork(dependencies.network)
                 .withSubnet(getSubnet());
 
             WithPublicIPAddress withPublicIpAddress;
@@ -880,9 +964,7 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
 
             if (!ObjectUtils.isBlank(getPublicIpAddress())) {
                 networkConfigured = withPublicIpAddress.withExistingPrimaryPublicIPAddress(
-                    client.publicIpAddresses()
-                        .getByResourceGroup(getResourceGroup().getName(), getPublicIpAddress().getName())
-                );
+                    dependencies.publicIpAddress);
             } else {
                 networkConfigured = withPublicIpAddress.withoutPrimaryPublicIPAddress();
             }
@@ -897,12 +979,12 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * Configures OS Disk, Admin User, and Data Disks
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
-    private WithCreate configureOS(AzureResourceManager client, VirtualMachine.DefinitionStages.WithOS withOS) {
+    private WithCreate configureOS(Dependencies dependencies, VirtualMachine.DefinitionStages.WithOS withOS) {
         switch (getOsType()) {
             case "linux":
-                return configureLinux(client, withOS);
+                return configureLinux(dependencies, withOS);
             case "windows":
-                return configureWindows(client, withOS);
+                return configureWindows(dependencies, withOS);
             default:
                 throw new GyroException(String.format("OS Type [%s] is unsupported!", getOsType()));
         }
@@ -913,45 +995,37 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * Configures OS Disk, Admin User, and Data Disks
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
-    private WithCreate configureLinux(AzureResourceManager client, WithOS withOS) {
+    private WithCreate configureLinux(Dependencies dependencies, WithOS withOS) {
         switch (getVmImageType()) {
             case "custom":
                 return configureLinuxManaged(
-                    client,
+                    dependencies,
                     withOS.withGeneralizedLinuxCustomImage(getCustomImage()));
             case "gallery":
                 return configureLinuxManaged(
-                    client,
+                    dependencies,
                     withOS.withGeneralizedLinuxGalleryImageVersion(getGalleryImageVersion()));
             case "latest":
                 return configureLinuxManagedOrUnmanaged(
-                    client,
+                    dependencies,
                     withOS.withLatestLinuxImage(getImagePublisher(), getImageOffer(), getImageSku()));
             case "popular":
                 return configureLinuxManagedOrUnmanaged(
-                    client,
+                    dependencies,
                     withOS.withPopularLinuxImage(KnownLinuxVirtualMachineImage.valueOf(getKnownVirtualImage())));
             case "specific":
                 return configureLinuxManagedOrUnmanaged(
-                    client,
-                    withOS.withSpecificLinuxImageVersion(
-                        client.virtualMachineImages()
-                            .getImage(
-                                getImageRegion(),
-                                getImagePublisher(),
-                                getImageOffer(),
-                                getImageSku(),
-                                getImageVersion())
-                            .imageReference()));
+                    dependencies,
+                    withOS.withSpecificLinuxImageVersion(dependencies.image.imageReference()));
             case "stored":
                 return configureLinuxUnmanaged(
-                    client,
+                    dependencies,
                     withOS.withStoredLinuxImage(getStoredImage()));
             case "specialized":
                 // Only Managed Disks are supported by Gyro currently
                 WithManagedCreate specializedOsManagedConfigured = withOS.withSpecializedOSDisk(
-                    client.disks().getById(getOsDisk().getId()), OperatingSystemTypes.LINUX);
-                return configureManagedDataDisks(client, specializedOsManagedConfigured);
+                    dependencies.osDisk, OperatingSystemTypes.LINUX);
+                return configureManagedDataDisks(dependencies, specializedOsManagedConfigured);
             default:
                 throw new GyroException(String.format("Linux VM Image Type [%s] is Unsupported!", getVmImageType()));
         }
@@ -962,10 +1036,10 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
     private WithCreate configureLinuxManaged(
-        AzureResourceManager client,
+        Dependencies dependencies,
         WithLinuxRootUsernameManaged vmImageTypeConfigured) {
         return configureManagedDataDisks(
-            client,
+            dependencies,
             configureLinuxAdmin(vmImageTypeConfigured).withCustomData(getEncodedCustomData()));
     }
 
@@ -974,11 +1048,11 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
     private WithCreate configureLinuxManagedOrUnmanaged(
-        AzureResourceManager client,
+        Dependencies dependencies,
         WithLinuxRootUsernameManagedOrUnmanaged vmImageTypeConfigured) {
         WithFromImageCreateOptionsManagedOrUnmanaged adminConfigured = configureLinuxAdmin(vmImageTypeConfigured);
         // Only managed disks are supported by Gyro currently.
-        return configureManagedDataDisks(client, adminConfigured.withCustomData(getEncodedCustomData()));
+        return configureManagedDataDisks(dependencies, adminConfigured.withCustomData(getEncodedCustomData()));
     }
 
     /**
@@ -986,10 +1060,10 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
     private WithCreate configureLinuxUnmanaged(
-        AzureResourceManager client,
+        Dependencies dependencies,
         WithLinuxRootUsernameUnmanaged vmImageTypeConfigured) {
         return configureUnmanagedDataDisks(
-            client,
+            dependencies,
             configureLinuxAdmin(vmImageTypeConfigured).withCustomData(getEncodedCustomData()));
     }
 
@@ -1069,46 +1143,38 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * Configures OS Disk, Admin User, and Data Disks
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
-    private WithCreate configureWindows(AzureResourceManager client, WithOS withOS) {
+    private WithCreate configureWindows(Dependencies dependencies, WithOS withOS) {
 
         switch (getVmImageType()) {
             case "custom":
                 return configureWindowsManaged(
-                    client,
+                    dependencies,
                     withOS.withGeneralizedWindowsCustomImage(getCustomImage()));
             case "gallery":
                 return configureWindowsManaged(
-                    client,
+                    dependencies,
                     withOS.withGeneralizedWindowsGalleryImageVersion(getGalleryImageVersion()));
             case "latest":
                 return configureWindowsManagedOrUnmanaged(
-                    client,
+                    dependencies,
                     withOS.withLatestWindowsImage(getImagePublisher(), getImageOffer(), getImageSku()));
             case "popular":
                 return configureWindowsManagedOrUnmanaged(
-                    client,
+                    dependencies,
                     withOS.withPopularWindowsImage(KnownWindowsVirtualMachineImage.valueOf(getKnownVirtualImage())));
             case "specific":
                 return configureWindowsManagedOrUnmanaged(
-                    client,
-                    withOS.withSpecificWindowsImageVersion(
-                        client.virtualMachineImages()
-                            .getImage(
-                                getImageRegion(),
-                                getImagePublisher(),
-                                getImageOffer(),
-                                getImageSku(),
-                                getImageVersion())
-                            .imageReference()));
+                    dependencies,
+                    withOS.withSpecificWindowsImageVersion(dependencies.image.imageReference()));
             case "stored":
                 return configureWindowsUnmanaged(
-                    client,
+                    dependencies,
                     withOS.withStoredWindowsImage(getStoredImage()));
             case "specialized":
                 // Only Managed Disks are supported by Gyro currently
                 WithManagedCreate specializedOsManagedConfigured = withOS.withSpecializedOSDisk(
-                    client.disks().getById(getOsDisk().getId()), OperatingSystemTypes.WINDOWS);
-                return configureManagedDataDisks(client, specializedOsManagedConfigured);
+                    dependencies.osDisk, OperatingSystemTypes.WINDOWS);
+                return configureManagedDataDisks(dependencies, specializedOsManagedConfigured);
             default:
                 throw new GyroException(String.format("Windows VM Image Type [%s] is Unsupported!", getVmImageType()));
         }
@@ -1119,11 +1185,11 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
     private WithCreate configureWindowsManaged(
-        AzureResourceManager client,
+        Dependencies dependencies,
         WithWindowsAdminUsernameManaged vmImageTypeConfigured) {
         WithWindowsCreateManaged adminConfigured = configureWindowsAdmin(vmImageTypeConfigured);
         return configureManagedDataDisks(
-            client,
+            dependencies,
             adminConfigured.withoutAutoUpdate()
                 .withoutVMAgent()
                 .withTimeZone(getTimeZone())
@@ -1135,13 +1201,13 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
     private WithCreate configureWindowsManagedOrUnmanaged(
-        AzureResourceManager client,
+        Dependencies dependencies,
         WithWindowsAdminUsernameManagedOrUnmanaged vmImageTypeConfigured) {
         WithWindowsCreateManagedOrUnmanaged adminConfigured = configureWindowsAdmin(vmImageTypeConfigured);
 
         // Only managed disks are supported by Gyro currently.
         return configureManagedDataDisks(
-            client,
+            dependencies,
             adminConfigured.withoutAutoUpdate()
                 .withoutVMAgent()
                 .withTimeZone(getTimeZone())
@@ -1153,10 +1219,10 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
     private WithCreate configureWindowsUnmanaged(
-        AzureResourceManager client,
+        Dependencies dependencies,
         WithWindowsAdminUsernameUnmanaged vmImageTypeConfigured) {
         return configureUnmanagedDataDisks(
-            client,
+            dependencies,
             configureWindowsAdmin(vmImageTypeConfigured).withCustomData(getEncodedCustomData()));
     }
 
@@ -1193,17 +1259,14 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * Configures Managed Data Disks and Managed Data Disk defaults.
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
-    private WithCreate configureManagedDataDisks(AzureResourceManager client, WithManagedCreate adminConfigured) {
+    private WithCreate configureManagedDataDisks(Dependencies dependencies, WithManagedCreate adminConfigured) {
         WithManagedCreate diskDefaultsConfigured = adminConfigured
             .withDataDiskDefaultCachingType(CachingTypes.fromString(getCachingType()))
             .withDataDiskDefaultStorageAccountType(StorageAccountTypes.fromString(getStorageAccountTypeDataDisk()))
             .withOSDiskStorageAccountType(StorageAccountTypes.fromString(getStorageAccountTypeOsDisk()));
 
-        for (DiskResource diskResource : getDataDisks()) {
-            Disk disk = client.disks().getById(diskResource.getId());
-            if (disk != null) {
-                diskDefaultsConfigured.withExistingDataDisk(disk);
-            }
+        for (Disk disk : dependencies.dataDisks) {
+            diskDefaultsConfigured.withExistingDataDisk(disk);
         }
 
         return diskDefaultsConfigured;
@@ -1214,10 +1277,10 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
     private <T extends WithFromImageCreateOptionsManagedOrUnmanaged> WithCreate configureDataDisks(
-        AzureResourceManager client,
+        Dependencies dependencies,
         T adminConfigured) {
         // Only managed disks are supported by Gyro currently.
-        return configureManagedDataDisks(client, adminConfigured);
+        return configureManagedDataDisks(dependencies, adminConfigured);
     }
 
     /**
@@ -1225,7 +1288,7 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
      * @return {@link WithCreate} VM Definition object ready for final generic configurations
      */
     private WithCreate configureUnmanagedDataDisks(
-        AzureResourceManager client,
+        Dependencies dependencies,
         VirtualMachine.DefinitionStages.WithUnmanagedCreate adminConfigured) {
         // Only managed disks are supported by Gyro currently.
         if (!getDataDisks().isEmpty()) {
@@ -1237,6 +1300,8 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         VirtualMachine virtualMachine = client.virtualMachines().getById(getId());
@@ -1248,31 +1313,32 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
             .withTags(getTags());
 
         if (changedFieldNames.contains("data-disks")) {
+            // Keyed by lower-cased ID since the VM and the disk resources don't always agree on its case. Unmanaged
+            // disks have no ID and aren't managed by Gyro, so they're left alone.
             Map<String, Integer> currentDataDiskIdsToLun = new HashMap<>();
             for (Map.Entry<Integer, VirtualMachineDataDisk> dataDiskEntry : virtualMachine.dataDisks().entrySet()) {
-                currentDataDiskIdsToLun.put(dataDiskEntry.getValue().id(), dataDiskEntry.getKey());
+                String dataDiskId = dataDiskEntry.getValue().id();
+
+                if (dataDiskId != null) {
+                    currentDataDiskIdsToLun.put(dataDiskId.toLowerCase(), dataDiskEntry.getKey());
+                }
             }
 
-            Set<String> wantedDataDiskIds = getDataDisks()
-                .stream()
-                .map(DiskResource::getId)
-                .filter(s -> client.disks().getById(s) != null)
-                .collect(Collectors.toSet());
-
-            Set<String> diskIdsToRemove = new LinkedHashSet<>(currentDataDiskIdsToLun.keySet());
-            diskIdsToRemove.removeAll(wantedDataDiskIds);
-            for (String diskIdToRemove : diskIdsToRemove) {
-                if (currentDataDiskIdsToLun.get(diskIdToRemove) != null) {
-                    update.withoutDataDisk(currentDataDiskIdsToLun.get(diskIdToRemove));
+            // Wanted disks are fetched a few at a time, and disks that no longer exist are left out.
+            Map<String, Disk> wantedDataDisks = Flux.fromIterable(getDataDisks())
+                .flatMap(disk -> client.disks().getByIdAsync(disk.getId()), DATA_DISK_CONCURRENCY)
+                .collectMap(disk -> disk.id().toLowerCase())
+                .block();
+
+            for (Map.Entry<String, Integer> currentDataDisk : currentDataDiskIdsToLun.entrySet()) {
+                if (!wantedDataDisks.containsKey(currentDataDisk.getKey())) {
+                    update.withoutDataDisk(currentDataDisk.getValue());
                 }
             }
 
-            Set<String> disksIdsToAdd = new LinkedHashSet<>(wantedDataDiskIds);
-            disksIdsToAdd.removeAll(currentDataDiskIdsToLun.keySet());
-            for (String diskIdToAdd : disksIdsToAdd) {
-                Disk diskToAdd = client.disks().getById(diskIdToAdd);
-                if (diskIdToAdd != null) {
-                    update.withExistingDataDisk(diskToAdd);
+            for (Map.Entry<String, Disk> wantedDataDisk : wantedDataDisks.entrySet()) {
+                if (!currentDataDiskIdsToLun.containsKey(wantedDataDisk.getKey())) {
+                    update.withExistingDataDisk(wantedDataDisk.getValue());
                 }
             }
         }
@@ -1290,9 +1356,13 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
                 update = update.withoutUserAssignedManagedServiceIdentity(identity.getId());
             }
 
-            for (IdentityResource identity : getIdentities()) {
-                update = update.withExistingUserAssignedManagedServiceIdentity(client.identities()
-                    .getById(identity.getId()));
+            List<Identity> identities = Flux.fromIterable(getIdentities())
+                .flatMapSequential(identity -> client.identities().getByIdAsync(identity.getId()))
+                .collectList()
+                .block();
+
+            for (Identity identity : identities) {
+                update = update.withExistingUserAssignedManagedServiceIdentity(identity);
             }
         }
 
@@ -1302,6 +1372,8 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         VirtualMachine virtualMachine = client.virtualMachines().getById(getId());
@@ -1459,4 +1531,20 @@ public class VirtualMachineResource extends AzureResource implements GyroInstanc
     public String getGyroInstanceLocation() {
         return getLocation();
     }
+
+    /**
+     * Existing resources referenced by the VM definition, resolved up front by {@link #resolveDependencies}.
+     */
+    private static class Dependencies {
+
+        private NetworkInterface primaryNetworkInterface;
+        private Network network;
+        private PublicIpAddress publicIpAddress;
+        private VirtualMachineImage image;
+        private Disk osDisk;
+        private AvailabilitySet availabilitySet;
+        private List<NetworkInterface> secondaryNetworkInterfaces = new ArrayList<>();
+        private List<Identity> identities = new ArrayList<>();
+        private List<Disk> dataDisks = new ArrayList<>();
+    }
 }
@@ -501,6 +501,10 @@ public class KubernetesClusterResource extends AzureResource implements Copyable
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
         KubernetesClusters kubernetesClusters = client.kubernetesClusters();
         KubernetesCluster cluster = kubernetesClusters.list().stream()
@@ -287,6 +287,10 @@ public class CosmosDBAccountResource extends AzureResource implements Copyable<C
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         CosmosDBAccount cosmosAccount = client.cosmosDBAccounts().getById(getId());
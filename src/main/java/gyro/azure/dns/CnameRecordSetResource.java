@@ -232,6 +232,6 @@ public class CnameRecordSetResource extends AzureResource implements Copyable<Cn
     public void delete(GyroUI ui, State state) {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        client.dnsZones().getById(getDnsZone().getId()).update().withoutCaaRecordSet(getName()).apply();
+        client.dnsZones().getById(getDnsZone().getId()).update().withoutCNameRecordSet(getName()).apply();
     }
 }
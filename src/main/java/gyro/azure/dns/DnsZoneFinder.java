@@ -17,6 +17,7 @@
 package gyro.azure.dns;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -37,10 +38,13 @@ import gyro.core.Type;
  * .. code-block:: gyro
  *
  *    dns-zone: $(external-query azure::dns-zone {})
+ *
+ *    dns-zone-without-ns-records: $(external-query azure::dns-zone {id: "...", include-ns-records: false})
  */
 @Type("dns-zone")
 public class DnsZoneFinder extends AzureFinder<AzureResourceManager, DnsZone, DnsZoneResource> {
     private String id;
+    private Boolean includeNsRecords;
 
     /**
      * The ID of the DNS Zone.
@@ -53,6 +57,33 @@ public class DnsZoneFinder extends AzureFinder<AzureResourceManager, DnsZone, Dn
         this.id = id;
     }
 
+    /**
+     * When set to ``false`` the ns records of the matching zones are not loaded. Defaults to ``true``.
+     */
+    public Boolean getIncludeNsRecords() {
+        return includeNsRecords;
+    }
+
+    public void setIncludeNsRecords(Boolean includeNsRecords) {
+        this.includeNsRecords = includeNsRecords;
+    }
+
+    @Override
+    public List<DnsZoneResource> find(Map<String, Object> filters) {
+        Map<String, Object> zoneFilters = new HashMap<>(filters);
+        Boolean includeNsRecords = ObjectUtils.to(Boolean.class, zoneFilters.remove("include-ns-records"));
+
+        // The option has to be set before copyFrom, which is where the ns records are listed.
+        return findAzure(newClient(), convertFilters(zoneFilters)).stream()
+            .map(dnsZone -> {
+                DnsZoneResource resource = newResource();
+                resource.setIncludeNsRecords(!Boolean.FALSE.equals(includeNsRecords));
+                resource.copyFrom(dnsZone);
+                return resource;
+            })
+            .collect(Collectors.toList());
+    }
+
     @Override
     protected List<DnsZone> findAllAzure(AzureResourceManager client) {
         return client.dnsZones().list().stream().collect(Collectors.toList());
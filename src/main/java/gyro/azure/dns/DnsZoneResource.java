@@ -20,6 +20,8 @@ import com.azure.resourcemanager.AzureResourceManager;
 import com.azure.resourcemanager.dns.models.DnsZone;
 import com.azure.resourcemanager.dns.models.NsRecordSet;
 import com.azure.resourcemanager.resources.fluentcore.arm.models.HasName;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -62,6 +64,7 @@ public class DnsZoneResource extends AzureResource implements Copyable<DnsZone>
     private String name;
     private ResourceGroupResource resourceGroup;
     private Map<String, String> tags;
+    private Boolean includeNsRecords;
 
     private List<String> nsRecords;
     private List<String> nameServers;
@@ -120,14 +123,27 @@ public class DnsZoneResource extends AzureResource implements Copyable<DnsZone>
     }
 
     /**
-     * List of ns record names present in the Dns Zone.
+     * When set to ``false`` the ns records of the Dns Zone are not listed, which saves a paged list call per zone
+     * on every refresh. Defaults to ``true``.
      */
-    @Output
-    public List<String> getNsRecords() {
-        if (nsRecords == null) {
-            nsRecords = new ArrayList<>();
+    @Updatable
+    public Boolean getIncludeNsRecords() {
+        if (includeNsRecords == null) {
+            includeNsRecords = true;
         }
 
+        return includeNsRecords;
+    }
+
+    public void setIncludeNsRecords(Boolean includeNsRecords) {
+        this.includeNsRecords = includeNsRecords;
+    }
+
+    /**
+     * List of ns record names present in the Dns Zone. Not set when ``include-ns-records`` is ``false``.
+     */
+    @Output
+    public List<String> getNsRecords() {
         return nsRecords;
     }
 
@@ -158,18 +174,28 @@ public class DnsZoneResource extends AzureResource implements Copyable<DnsZone>
         setResourceGroup(findById(ResourceGroupResource.class, dnsZone.resourceGroupName()));
         setTags(dnsZone.tags());
 
-        setNsRecords(dnsZone.nsRecordSets().list().stream()
-            .map(HasName::name)
-            .collect(Collectors.toList()));
+        // NS records need a separate paged list call, so they're only listed when asked for.
+        setNsRecords(getIncludeNsRecords()
+            ? dnsZone.nsRecordSets().list().stream().map(HasName::name).collect(Collectors.toList())
+            : null);
 
         setNameServers(dnsZone.nameServers());
     }
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        DnsZone dnsZone = client.dnsZones().getById(getId());
+        DnsZone dnsZone = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            DnsZone.class,
+            getId(),
+            () -> client.dnsZones().getById(getId()));
 
         if (dnsZone == null) {
             return false;
@@ -182,6 +208,8 @@ public class DnsZoneResource extends AzureResource implements Copyable<DnsZone>
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         DnsZone.DefinitionStages.WithCreate withCreate;
@@ -201,6 +229,8 @@ public class DnsZoneResource extends AzureResource implements Copyable<DnsZone>
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedProperties) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         DnsZone.Update update = client.dnsZones().getById(getId()).update();
@@ -214,6 +244,8 @@ public class DnsZoneResource extends AzureResource implements Copyable<DnsZone>
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.dnsZones().deleteById(getId());
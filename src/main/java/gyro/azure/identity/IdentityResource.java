@@ -19,6 +19,8 @@ package gyro.azure.identity;
 import com.azure.core.management.Region;
 import com.azure.resourcemanager.AzureResourceManager;
 import com.azure.resourcemanager.msi.models.Identity;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -164,9 +166,18 @@ public class IdentityResource extends AzureResource implements Copyable<Identity
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        Identity identity = client.identities().getById(getId());
+        Identity identity = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            Identity.class,
+            getId(),
+            () -> client.identities().getById(getId()));
 
         if (identity == null) {
             return false;
@@ -179,6 +190,8 @@ public class IdentityResource extends AzureResource implements Copyable<Identity
 
     @Override
     public void create(GyroUI ui, State state) throws Exception {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         Identity identity = client.identities().define(getName())
@@ -192,6 +205,8 @@ public class IdentityResource extends AzureResource implements Copyable<Identity
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) throws Exception {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         Identity.Update update = client.identities().getById(getId()).update();
@@ -212,6 +227,8 @@ public class IdentityResource extends AzureResource implements Copyable<Identity
 
     @Override
     public void delete(GyroUI ui, State state) throws Exception {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.identities().deleteById(getId());
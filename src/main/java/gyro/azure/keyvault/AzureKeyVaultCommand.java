@@ -6,7 +6,7 @@ import picocli.CommandLine;
 @CommandLine.Command(name = "key-vault",
     description = "Manage azure key-vault secrets, keys and certificates.",
     synopsisHeading = "%n",
-    header = "Add, remove, or list certificates and secrets of key-vault.",
+    header = "Add, remove, list, import or export certificates and secrets of key-vault.",
     descriptionHeading = "%nDescription:%n%n",
     parameterListHeading = "%nParameters:%n",
     optionListHeading = "%nOptions:%n",
@@ -15,6 +15,8 @@ import picocli.CommandLine;
     subcommands = {
         AddVaultCertificateCommand.class,
         AddVaultSecretCommand.class,
+        ExportVaultSecretsCommand.class,
+        ImportVaultSecretsCommand.class,
         ListVaultCertificateCommand.class,
         ListVaultSecretCommand.class,
         RemoveVaultCertificateCommand.class,
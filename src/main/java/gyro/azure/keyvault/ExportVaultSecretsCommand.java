@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure.keyvault;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.azure.resourcemanager.keyvault.models.Vault;
+import com.azure.security.keyvault.secrets.SecretAsyncClient;
+import gyro.core.GyroCore;
+import gyro.core.GyroException;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+@Command(name = "export-secrets",
+    header = "Export the secrets of an Azure key vault to a JSON Lines or env file.",
+    synopsisHeading = "%n",
+    parameterListHeading = "%nParameters:%n",
+    optionListHeading = "%nOptions:%n",
+    usageHelpWidth = 100)
+public class ExportVaultSecretsCommand extends AbstractVaultCommand {
+
+    @Parameters(description = "The command requires two arguments. <vault-name>: the key-vault resource name used in the config whose secrets would be exported. <file>: the JSON Lines or env file to write the secrets to.", arity = "1")
+    private List<String> arguments;
+
+    @Option(names = "--format", description = "Format of the file, 'jsonl' or 'env'. Defaults to 'env' for files ending in '.env' and 'jsonl' otherwise.")
+    private String format;
+
+    @Option(names = "--concurrency", description = "Maximum number of secrets read at the same time. Defaults to 8.")
+    private int concurrency = VaultSecretTransfer.DEFAULT_CONCURRENCY;
+
+    @Option(names = "--overwrite", description = "Replace the file if it already exists.")
+    private boolean overwrite;
+
+    @Override
+    public void execute() throws Exception {
+        if (arguments.size() == 2) {
+            String vaultResourceName = arguments.get(0);
+            Path file = Paths.get(arguments.get(1));
+
+            if (!overwrite && Files.exists(file)) {
+                throw new GyroException(String.format("'%s' already exists, use --overwrite to replace it!", file));
+            }
+
+            if (concurrency < 1) {
+                throw new GyroException("'--concurrency' must be at least 1!");
+            }
+
+            VaultSecretTransfer.Format fileFormat = VaultSecretTransfer.Format.of(format, file);
+            Vault vault = getVault(vaultResourceName);
+            VaultSecretTransfer transfer = new VaultSecretTransfer(vault.vaultUri(), getTokenCredential(), "exported");
+            SecretAsyncClient client = transfer.getClient();
+            AtomicLong skipped = new AtomicLong();
+            Disposable progress = transfer.reportProgress();
+
+            try {
+                createPrivateFile(file);
+
+            } catch (IOException error) {
+                throw new GyroException(String.format("Can't create '%s'!", file), error);
+            }
+
+            // Secrets are written as they arrive, so the vault is never fully in memory.
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                client.listPropertiesOfSecrets()
+                    .filter(properties -> {
+                        // Disabled secrets can't be read, and managed ones belong to certificates and can't be set.
+                        if (Boolean.TRUE.equals(properties.isEnabled())
+                            && !Boolean.TRUE.equals(properties.isManaged())) {
+                            return true;
+                        }
+
+                        skipped.incrementAndGet();
+                        return false;
+                    })
+                    .flatMap(properties -> transfer.call(() -> client.getSecret(properties.getName()))
+                        .onErrorResume(error -> {
+                            transfer.failed(properties.getName(), error);
+                            return Mono.empty();
+                        }), concurrency)
+                    .doOnNext(secret -> {
+                        writeLine(writer, fileFormat.format(secret));
+                        transfer.succeeded();
+                    })
+                    .blockLast();
+
+            } catch (UncheckedIOException error) {
+                throw new GyroException(String.format("Can't write to '%s'!", file), error.getCause());
+
+            } finally {
+                progress.dispose();
+            }
+
+            if (skipped.get() > 0) {
+                GyroCore.ui().write(String.format("\nSkipped %d disabled or certificate secret(s).", skipped.get()));
+            }
+
+            transfer.finish();
+
+        } else {
+            throw new GyroException("'export-secrets' needs exactly two arguments, <vault-name> <file>");
+        }
+    }
+
+    /**
+     * Creates {@code file} readable and writable by its owner only, where the file system supports POSIX
+     * permissions, so no secret is ever written to a file that others can read. An existing file is replaced
+     * rather than reused, since it may have wider permissions or other links to it.
+     */
+    private static void createPrivateFile(Path file) throws IOException {
+        if (!file.toAbsolutePath().getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+
+        Files.deleteIfExists(file);
+        Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+    }
+
+    private static void writeLine(BufferedWriter writer, String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+}
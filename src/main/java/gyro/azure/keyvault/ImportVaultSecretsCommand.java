@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure.keyvault;
+
+import java.io.BufferedReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import com.azure.resourcemanager.keyvault.models.Vault;
+import com.azure.security.keyvault.secrets.models.KeyVaultSecret;
+import com.psddev.dari.util.ObjectUtils;
+import gyro.core.GyroException;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Command(name = "import-secrets",
+    header = "Import secrets from a JSON Lines or env file into an Azure key vault.",
+    synopsisHeading = "%n",
+    parameterListHeading = "%nParameters:%n",
+    optionListHeading = "%nOptions:%n",
+    usageHelpWidth = 100)
+public class ImportVaultSecretsCommand extends AbstractVaultCommand {
+
+    @Parameters(description = "The command requires two arguments. <vault-name>: the key-vault resource name used in the config to which the secrets would be imported. <file>: the JSON Lines or env file to read the secrets from.", arity = "1")
+    private List<String> arguments;
+
+    @Option(names = "--format", description = "Format of the file, 'jsonl' or 'env'. Defaults to 'env' for files ending in '.env' and 'jsonl' otherwise.")
+    private String format;
+
+    @Option(names = "--concurrency", description = "Maximum number of secrets set at the same time. Defaults to 8.")
+    private int concurrency = VaultSecretTransfer.DEFAULT_CONCURRENCY;
+
+    @Override
+    public void execute() throws Exception {
+        if (arguments.size() == 2) {
+            String vaultResourceName = arguments.get(0);
+            Path file = Paths.get(arguments.get(1));
+
+            if (!Files.isRegularFile(file)) {
+                throw new GyroException(String.format("No file found at '%s'!", file));
+            }
+
+            if (concurrency < 1) {
+                throw new GyroException("'--concurrency' must be at least 1!");
+            }
+
+            VaultSecretTransfer.Format fileFormat = VaultSecretTransfer.Format.of(format, file);
+            Vault vault = getVault(vaultResourceName);
+            VaultSecretTransfer transfer = new VaultSecretTransfer(vault.vaultUri(), getTokenCredential(), "imported");
+            Disposable progress = transfer.reportProgress();
+
+            // Lines are read as they're needed, so the file is never fully in memory.
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Flux.fromStream(reader.lines())
+                    .index()
+                    .filter(line -> !fileFormat.skips(line.getT2()))
+                    .flatMap(line -> importLine(transfer, fileFormat, line.getT1() + 1, line.getT2()), concurrency)
+                    .blockLast();
+
+            } catch (UncheckedIOException error) {
+                throw new GyroException(String.format("Can't read '%s'!", file), error.getCause());
+
+            } finally {
+                progress.dispose();
+            }
+
+            transfer.finish();
+
+        } else {
+            throw new GyroException("'import-secrets' needs exactly two arguments, <vault-name> <file>");
+        }
+    }
+
+    private Mono<KeyVaultSecret> importLine(
+        VaultSecretTransfer transfer,
+        VaultSecretTransfer.Format fileFormat,
+        long number,
+        String line) {
+
+        KeyVaultSecret secret;
+
+        try {
+            secret = fileFormat.parse(line);
+
+            if (ObjectUtils.isBlank(secret.getName()) || secret.getValue() == null) {
+                throw new GyroException("Expected a name and a value!");
+            }
+
+        } catch (RuntimeException error) {
+            transfer.failed(String.format("Line %d", number), error);
+            return Mono.empty();
+        }
+
+        return transfer.call(() -> transfer.getClient().setSecret(secret))
+            .doOnSuccess(result -> transfer.succeeded())
+            .onErrorResume(error -> {
+                transfer.failed(secret.getName(), error);
+                return Mono.empty();
+            });
+    }
+}
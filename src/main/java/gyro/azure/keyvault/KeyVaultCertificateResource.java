@@ -23,13 +23,12 @@ import java.util.Optional;
 import java.util.Set;
 
 import com.azure.core.exception.ResourceNotFoundException;
-import com.azure.core.util.polling.LongRunningOperationStatus;
 import com.azure.core.util.polling.SyncPoller;
 import com.azure.security.keyvault.certificates.CertificateClient;
 import com.azure.security.keyvault.certificates.CertificateClientBuilder;
 import com.azure.security.keyvault.certificates.models.CertificateOperation;
-import com.azure.security.keyvault.certificates.models.DeletedCertificate;
 import com.azure.security.keyvault.certificates.models.KeyVaultCertificateWithPolicy;
+import gyro.azure.AzureOperations;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.core.GyroCore;
@@ -97,6 +96,8 @@ import gyro.core.validation.Required;
 @Type("key-vault-certificate")
 public class KeyVaultCertificateResource extends AzureResource implements Copyable<KeyVaultCertificateWithPolicy> {
 
+    private static final Duration OPERATION_TIMEOUT = Duration.ofMinutes(5);
+
     private String name;
     private KeyVaultResource vault;
     private KeyVaultCertificatePolicy policy;
@@ -244,32 +245,34 @@ public class KeyVaultCertificateResource extends AzureResource implements Copyab
     public void create(GyroUI ui, State state) throws Exception {
         CertificateClient client = getClient();
 
-        SyncPoller<CertificateOperation, KeyVaultCertificateWithPolicy> policySyncPoller = client.beginCreateCertificate(
+        SyncPoller<CertificateOperation, KeyVaultCertificateWithPolicy> poller = client.beginCreateCertificate(
             getName(),
             getPolicy().toCertificatePolicy(),
             getEnabled(),
             getTags());
 
-        KeyVaultCertificateWithPolicy certificate = null;
+        KeyVaultCertificateWithPolicy certificate;
 
-        try {
-            policySyncPoller.waitUntil(Duration.ofMinutes(5), LongRunningOperationStatus.SUCCESSFULLY_COMPLETED);
-            certificate = policySyncPoller.getFinalResult();
-        } catch (IllegalArgumentException ex) {
-            // Do something
+        // Certificates from an unknown issuer stay pending until they are merged, so there is nothing to wait for.
+        if (getPolicy().getIssuerName().equals("Unknown")) {
+            certificate = client.getCertificate(getName());
+
+        } else {
+            certificate = AzureOperations.await(
+                String.format("creation of certificate [%s]", getName()),
+                poller,
+                OPERATION_TIMEOUT);
         }
 
-        if (certificate != null) {
-            copyFrom(certificate);
+        copyFrom(certificate);
 
-            state.save();
+        state.save();
 
-            if (getPolicy().getIssuerName().equals("Unknown")) {
-                GyroCore.ui()
-                    .write(
-                        "\n@|blue Certificate created, but needs to be merged before use. "
-                            + "Please use the Azure console to merge the certificate! |@\n\n");
-            }
+        if (getPolicy().getIssuerName().equals("Unknown")) {
+            GyroCore.ui()
+                .write(
+                    "\n@|blue Certificate created, but needs to be merged before use. "
+                        + "Please use the Azure console to merge the certificate! |@\n\n");
         }
     }
 
@@ -283,14 +286,10 @@ public class KeyVaultCertificateResource extends AzureResource implements Copyab
     public void delete(GyroUI ui, State state) throws Exception {
         CertificateClient client = getClient();
 
-        SyncPoller<DeletedCertificate, Void> syncPoller = client.beginDeleteCertificate(getName());
-        try {
-            syncPoller.waitUntil(Duration.ofMinutes(5), LongRunningOperationStatus.SUCCESSFULLY_COMPLETED);
-            syncPoller.getFinalResult();
-        } catch (IllegalArgumentException ex) {
-            // Do something
-            // TODO verify certificate exception, also affect finders and command
-        }
+        AzureOperations.await(
+            String.format("deletion of certificate [%s]", getName()),
+            client.beginDeleteCertificate(getName()),
+            OPERATION_TIMEOUT);
     }
 
     private CertificateClient getClient() {
@@ -20,6 +20,7 @@ import com.azure.security.keyvault.keys.models.KeyCurveName;
 import com.azure.security.keyvault.keys.models.KeyOperation;
 import com.azure.security.keyvault.keys.models.KeyType;
 import com.azure.security.keyvault.keys.models.KeyVaultKey;
+import gyro.azure.AzureOperations;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.core.GyroUI;
@@ -357,8 +358,9 @@ public class KeyVaultKeyResource extends AzureResource implements Copyable<KeyVa
         KeyClient keyClient = getKeyClient();
 
         SyncPoller<DeletedKey, Void> deletedKeyPoller = keyClient.beginDeleteKey(getName());
-        deletedKeyPoller.poll();
-        deletedKeyPoller.waitForCompletion();
+        AzureOperations.await(
+            String.format("deletion of key [%s]", getName()),
+            deletedKeyPoller);
     }
 
     public KeyClient getKeyClient() {
@@ -169,6 +169,33 @@ import gyro.core.validation.Required;
  *
  * - ``vault-name`` - The name of the key-vault resource defined in your config that you want to list secrets from.
  *
+ * **Import Secrets**
+ *
+ * Sets every secret in a JSON Lines or env file, several at a time. Access policy needed (Set).
+ *
+ * .. code::
+ *
+ *     gyro azure key-vault import-secrets <vault-name> <file> --format <format> --concurrency <concurrency>
+ *
+ * - ``vault-name`` - The name of the key-vault resource defined in your config where you want to import the secrets.
+ * - ``file`` - The file to read. JSON Lines files have one ``{"name": ..., "value": ...}`` object per line, which can also have ``contentType``, ``enabled``, ``expiresOn``, ``notBefore`` and ``tags``. Env files have one ``NAME=value`` per line, with underscores in names read as dashes.
+ * - ``format`` - An optional value, ``jsonl`` or ``env``. Defaults to ``env`` for files ending in ``.env`` and ``jsonl`` otherwise.
+ * - ``concurrency`` - An optional value specifying how many secrets are set at the same time. Defaults to 8.
+ *
+ * **Export Secrets**
+ *
+ * Writes every enabled secret of a vault to a JSON Lines or env file. Access policy needed (List, Get).
+ *
+ * .. code::
+ *
+ *     gyro azure key-vault export-secrets <vault-name> <file> --format <format> --concurrency <concurrency> --overwrite
+ *
+ * - ``vault-name`` - The name of the key-vault resource defined in your config that you want to export secrets from.
+ * - ``file`` - The file to write, in the same format ``import-secrets`` reads.
+ * - ``format`` - An optional value, ``jsonl`` or ``env``. Defaults to ``env`` for files ending in ``.env`` and ``jsonl`` otherwise.
+ * - ``concurrency`` - An optional value specifying how many secrets are read at the same time. Defaults to 8.
+ * - ``overwrite`` - An optional flag to replace the file if it already exists.
+ *
  *
  */
 @Type("key-vault")
@@ -405,6 +432,10 @@ public class KeyVaultResource extends AzureResource implements Copyable<Vault> {
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         Vault vault = client.vaults().getByResourceGroup(getResourceGroup().getName(), getName());
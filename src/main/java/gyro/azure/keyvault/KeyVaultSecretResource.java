@@ -11,6 +11,7 @@ import com.azure.security.keyvault.secrets.SecretClientBuilder;
 import com.azure.security.keyvault.secrets.models.DeletedSecret;
 import com.azure.security.keyvault.secrets.models.KeyVaultSecret;
 import com.azure.security.keyvault.secrets.models.SecretProperties;
+import gyro.azure.AzureOperations;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.core.GyroUI;
@@ -258,8 +259,9 @@ public class KeyVaultSecretResource extends AzureResource implements Copyable<Ke
     public void delete(GyroUI ui, State state) throws Exception {
         SecretClient client = getSecretClient();
         SyncPoller<DeletedSecret, Void> deletedSecretPoller = client.beginDeleteSecret(getName());
-        deletedSecretPoller.poll();
-        deletedSecretPoller.waitForCompletion();
+        AzureOperations.await(
+            String.format("deletion of secret [%s]", getName()),
+            deletedSecretPoller);
     }
 
     public SecretClient getSecretClient() {
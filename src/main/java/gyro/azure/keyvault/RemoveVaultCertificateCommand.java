@@ -19,12 +19,12 @@ package gyro.azure.keyvault;
 import java.time.Duration;
 import java.util.List;
 
-import com.azure.core.util.polling.LongRunningOperationStatus;
 import com.azure.core.util.polling.SyncPoller;
 import com.azure.resourcemanager.keyvault.models.Vault;
 import com.azure.security.keyvault.certificates.CertificateClient;
 import com.azure.security.keyvault.certificates.CertificateClientBuilder;
 import com.azure.security.keyvault.certificates.models.DeletedCertificate;
+import gyro.azure.AzureOperations;
 import gyro.core.GyroCore;
 import gyro.core.GyroException;
 import picocli.CommandLine.Command;
@@ -56,12 +56,10 @@ public class RemoveVaultCertificateCommand extends AbstractVaultCommand {
 
             SyncPoller<DeletedCertificate, Void> syncPoller = client.beginDeleteCertificate(
                 certificateName);
-            try {
-                syncPoller.waitUntil(Duration.ofMinutes(5), LongRunningOperationStatus.SUCCESSFULLY_COMPLETED);
-                syncPoller.getFinalResult();
-            } catch (IllegalArgumentException ex) {
-                // Do something
-            }
+            AzureOperations.await(
+                String.format("deletion of certificate [%s]", certificateName),
+                syncPoller,
+                Duration.ofMinutes(5));
 
             GyroCore.ui().write("\nCertificate removed.");
 
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure.keyvault;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.azure.core.credential.TokenCredential;
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpResponse;
+import com.azure.security.keyvault.secrets.SecretAsyncClient;
+import com.azure.security.keyvault.secrets.SecretClientBuilder;
+import com.azure.security.keyvault.secrets.models.KeyVaultSecret;
+import com.azure.security.keyvault.secrets.models.SecretProperties;
+import com.psddev.dari.util.ObjectUtils;
+import gyro.core.GyroCore;
+import gyro.core.GyroException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Shared plumbing for the bulk {@code import-secrets} and {@code export-secrets} commands.
+ *
+ * Requests go through a single {@link SecretAsyncClient} so that thousands of secrets are moved by one invocation.
+ * When the vault throttles a request with a 429, every request waits out the {@code Retry-After} hint (or an
+ * exponential delay when there is none) before the next call, so the whole transfer slows down to what the vault
+ * accepts instead of each worker retrying on its own.
+ */
+class VaultSecretTransfer {
+
+    static final int DEFAULT_CONCURRENCY = 8;
+
+    private static final int MAX_THROTTLE_RETRIES = 8;
+    private static final long INITIAL_THROTTLE_DELAY_MILLIS = 1000;
+    private static final long MAX_THROTTLE_DELAY_MILLIS = 30000;
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(5);
+
+    private final SecretAsyncClient client;
+    private final String verb;
+    private final long startMillis = System.currentTimeMillis();
+    private final AtomicLong pausedUntilMillis = new AtomicLong();
+    private final AtomicLong transferred = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final Queue<String> failures = new ConcurrentLinkedQueue<>();
+
+    VaultSecretTransfer(String vaultUrl, TokenCredential credential, String verb) {
+        this.client = new SecretClientBuilder()
+            .vaultUrl(vaultUrl)
+            .credential(credential)
+            .buildAsyncClient();
+        this.verb = verb;
+    }
+
+    SecretAsyncClient getClient() {
+        return client;
+    }
+
+    /**
+     * Subscribes to {@code request} once any vault-wide throttling pause is over, and retries it while the vault
+     * answers with a 429.
+     */
+    <T> Mono<T> call(Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            long pause = pausedUntilMillis.get() - System.currentTimeMillis();
+            Mono<T> call = Mono.defer(request);
+
+            return pause > 0 ? Mono.delay(Duration.ofMillis(pause)).then(call) : call;
+
+        }).retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable error = signal.failure();
+
+            if (!isThrottled(error) || signal.totalRetries() >= MAX_THROTTLE_RETRIES) {
+                return Mono.error(error);
+            }
+
+            long delay = throttleDelayMillis((HttpResponseException) error, signal.totalRetries());
+            pausedUntilMillis.accumulateAndGet(System.currentTimeMillis() + delay, Math::max);
+            throttled.incrementAndGet();
+
+            return Mono.delay(Duration.ofMillis(delay));
+        })));
+    }
+
+    void succeeded() {
+        transferred.incrementAndGet();
+    }
+
+    void failed(String item, Throwable error) {
+        failures.add(String.format("%s: %s", item, error.getMessage()));
+    }
+
+    /**
+     * Writes the progress every few seconds until the returned {@link Disposable} is disposed.
+     */
+    Disposable reportProgress() {
+        return Flux.interval(PROGRESS_INTERVAL).subscribe(tick -> writeProgress());
+    }
+
+    /**
+     * Writes the final counts, and throws if any secret couldn't be transferred.
+     */
+    void finish() {
+        writeProgress();
+
+        if (!failures.isEmpty()) {
+            failures.forEach(failure -> GyroCore.ui().write(String.format("\n@|red %s|@", failure)));
+
+            throw new GyroException(String.format("%d secret(s) could not be %s!", failures.size(), verb));
+        }
+
+        GyroCore.ui().write("\n");
+    }
+
+    private void writeProgress() {
+        long count = transferred.get();
+        double seconds = Math.max(1, System.currentTimeMillis() - startMillis) / 1000.0;
+        long throttles = throttled.get();
+
+        GyroCore.ui().write(String.format(
+            "\n@|bold,blue %d|@ secret(s) %s (%.1f/s)%s",
+            count,
+            verb,
+            count / seconds,
+            throttles > 0 ? String.format(", throttled %d time(s)", throttles) : ""));
+    }
+
+    private static boolean isThrottled(Throwable error) {
+        if (!(error instanceof HttpResponseException)) {
+            return false;
+        }
+
+        HttpResponse response = ((HttpResponseException) error).getResponse();
+
+        return response != null && response.getStatusCode() == 429;
+    }
+
+    private static long throttleDelayMillis(HttpResponseException error, long retries) {
+        String retryAfter = error.getResponse().getHeaderValue("Retry-After");
+
+        if (retryAfter != null) {
+            try {
+                long seconds = Long.parseLong(retryAfter.trim());
+
+                return Math.min(Duration.ofSeconds(seconds).toMillis(), MAX_THROTTLE_DELAY_MILLIS);
+
+            } catch (NumberFormatException ignored) {
+                // Falls back to the exponential delay below.
+            }
+        }
+
+        long delay = Math.min(INITIAL_THROTTLE_DELAY_MILLIS << Math.min(retries, 16), MAX_THROTTLE_DELAY_MILLIS);
+
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Line-based file formats that secrets are read from and written to.
+     */
+    enum Format {
+
+        /**
+         * One JSON object per line with {@code name}, {@code value} and optionally {@code contentType},
+         * {@code enabled}, {@code expiresOn}, {@code notBefore} and {@code tags}.
+         */
+        JSONL {
+            @Override
+            KeyVaultSecret parse(String line) {
+                Object json = ObjectUtils.fromJson(line);
+
+                if (!(json instanceof Map)) {
+                    throw new GyroException("Expected a JSON object!");
+                }
+
+                Map<?, ?> map = (Map<?, ?>) json;
+                KeyVaultSecret secret = new KeyVaultSecret(
+                    ObjectUtils.to(String.class, map.get("name")),
+                    ObjectUtils.to(String.class, map.get("value")));
+                SecretProperties properties = secret.getProperties();
+
+                properties.setContentType(ObjectUtils.to(String.class, map.get("contentType")));
+
+                if (map.get("enabled") != null) {
+                    properties.setEnabled(ObjectUtils.to(Boolean.class, map.get("enabled")));
+                }
+
+                if (map.get("expiresOn") != null) {
+                    properties.setExpiresOn(OffsetDateTime.parse(map.get("expiresOn").toString()));
+                }
+
+                if (map.get("notBefore") != null) {
+                    properties.setNotBefore(OffsetDateTime.parse(map.get("notBefore").toString()));
+                }
+
+                if (map.get("tags") instanceof Map) {
+                    Map<String, String> tags = new LinkedHashMap<>();
+                    ((Map<?, ?>) map.get("tags")).forEach((key, value) -> tags.put(
+                        String.valueOf(key),
+                        String.valueOf(value)));
+                    properties.setTags(tags);
+                }
+
+                return secret;
+            }
+
+            @Override
+            String format(KeyVaultSecret secret) {
+                SecretProperties properties = secret.getProperties();
+                Map<String, Object> json = new LinkedHashMap<>();
+
+                json.put("name", secret.getName());
+                json.put("value", secret.getValue());
+                json.put("contentType", properties.getContentType());
+                json.put("enabled", properties.isEnabled());
+                json.put("expiresOn", properties.getExpiresOn() != null ? properties.getExpiresOn().toString() : null);
+                json.put("notBefore", properties.getNotBefore() != null ? properties.getNotBefore().toString() : null);
+                json.put("tags", properties.getTags());
+                json.values().removeIf(ObjectUtils::isBlank);
+
+                return ObjectUtils.toJson(json);
+            }
+        },
+
+        /**
+         * {@code NAME=value} lines. Values are written double quoted with backslash escapes. Key vault secret names
+         * can't contain underscores, so they're read as dashes.
+         */
+        ENV {
+            @Override
+            boolean skips(String line) {
+                return super.skips(line) || line.trim().startsWith("#");
+            }
+
+            @Override
+            KeyVaultSecret parse(String line) {
+                String trimmed = line.trim();
+
+                if (trimmed.startsWith("export ")) {
+                    trimmed = trimmed.substring(7).trim();
+                }
+
+                int equals = trimmed.indexOf('=');
+
+                if (equals < 1) {
+                    throw new GyroException("Expected NAME=value!");
+                }
+
+                String name = trimmed.substring(0, equals).trim().replace('_', '-');
+                String value = trimmed.substring(equals + 1).trim();
+
+                if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+                    value = unescape(value.substring(1, value.length() - 1));
+
+                } else if (value.length() > 1 && value.startsWith("'") && value.endsWith("'")) {
+                    value = value.substring(1, value.length() - 1);
+                }
+
+                return new KeyVaultSecret(name, value);
+            }
+
+            @Override
+            String format(KeyVaultSecret secret) {
+                String value = secret.getValue()
+                    .replace("\\", "\\\\")
+                    .replace("\"", "\\\"")
+                    .replace("\r", "\\r")
+                    .replace("\n", "\\n");
+
+                return secret.getName() + "=\"" + value + "\"";
+            }
+
+            private String unescape(String value) {
+                StringBuilder unescaped = new StringBuilder(value.length());
+
+                for (int i = 0; i < value.length(); i++) {
+                    char c = value.charAt(i);
+
+                    if (c == '\\' && i + 1 < value.length()) {
+                        char next = value.charAt(++i);
+                        unescaped.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+
+                    } else {
+                        unescaped.append(c);
+                    }
+                }
+
+                return unescaped.toString();
+            }
+        };
+
+        /**
+         * Picks the format by name, or by the file extension when {@code name} is blank.
+         */
+        static Format of(String name, Path file) {
+            if (ObjectUtils.isBlank(name)) {
+                return file.getFileName().toString().endsWith(".env") ? ENV : JSONL;
+            }
+
+            try {
+                return valueOf(name.toUpperCase());
+
+            } catch (IllegalArgumentException error) {
+                throw new GyroException(String.format("Unknown format '%s', expected 'jsonl' or 'env'!", name));
+            }
+        }
+
+        boolean skips(String line) {
+            return line.trim().isEmpty();
+        }
+
+        abstract KeyVaultSecret parse(String line);
+
+        abstract String format(KeyVaultSecret secret);
+    }
+}
@@ -16,11 +16,15 @@
 
 package gyro.azure.network;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import com.azure.core.management.Region;
@@ -41,6 +45,11 @@ import com.azure.resourcemanager.network.models.ApplicationGatewayRequestRouting
 import com.azure.resourcemanager.network.models.ApplicationGatewaySkuName;
 import com.azure.resourcemanager.network.models.ApplicationGatewayTier;
 import com.azure.resourcemanager.resources.fluentcore.arm.AvailabilityZoneId;
+import gyro.azure.AzureConditionalGet;
+import gyro.azure.AzureDetachedCreate;
+import gyro.azure.AzureDiff;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -232,6 +241,9 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
     private Boolean privateFrontEnd;
     private Set<String> availabilityZones;
     private ApplicationGatewayManagedServiceIdentity managedServiceIdentity;
+    private String etag;
+    private Boolean detachedCreate;
+    private String provisioningState;
 
     private String id;
 
@@ -577,8 +589,53 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
         return healthMap;
     }
 
+    /**
+     * The etag value of the Application Gateway.
+     */
+    @Output
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    /**
+     * When ``true``, create returns as soon as Azure has accepted the Application Gateway instead of waiting for it
+     * to finish provisioning, and the next refresh fills in the outputs. A gateway whose provisioning failed is
+     * created again on the next run. Defaults to ``false``.
+     */
+    @Updatable
+    public Boolean getDetachedCreate() {
+        if (detachedCreate == null) {
+            detachedCreate = false;
+        }
+
+        return detachedCreate;
+    }
+
+    public void setDetachedCreate(Boolean detachedCreate) {
+        this.detachedCreate = detachedCreate;
+    }
+
+    /**
+     * The provisioning state of the Application Gateway.
+     */
+    @Output
+    public String getProvisioningState() {
+        return provisioningState;
+    }
+
+    public void setProvisioningState(String provisioningState) {
+        this.provisioningState = provisioningState;
+    }
+
     @Override
     public void copyFrom(ApplicationGateway applicationGateway) {
+        setEtag(applicationGateway.innerModel().etag());
+        setProvisioningState(Objects.toString(applicationGateway.innerModel().provisioningState(), null));
+
         setId(applicationGateway.id());
         setInstanceCount(applicationGateway.instanceCount());
         setEnableHttp2(applicationGateway.isHttp2Enabled());
@@ -655,21 +712,43 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        ApplicationGateway applicationGateway = client.applicationGateways().getById(getId());
+        AtomicBoolean notModified = new AtomicBoolean();
+
+        ApplicationGateway applicationGateway = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            ApplicationGateway.class,
+            getId(),
+            () -> AzureConditionalGet.get(
+                client.applicationGateways().getByIdAsync(getId()),
+                getEtag(),
+                () -> notModified.set(true)));
+
+        if (notModified.get()) {
+            return true;
+        }
 
         if (applicationGateway == null) {
             return false;
         }
 
-        copyFrom(applicationGateway);
+        if (!AzureConditionalGet.isSameVersion(getEtag(), applicationGateway.innerModel().etag())) {
+            copyFrom(applicationGateway);
+        }
 
-        return true;
+        return !(getDetachedCreate() && AzureDetachedCreate.isFailed(getProvisioningState()));
     }
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         ApplicationGateway.DefinitionStages.WithRequestRoutingRule withRequestRoutingRule = client.applicationGateways()
@@ -720,51 +799,104 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             withCreate.withIdentity(getManagedServiceIdentity().toManagedServiceIdentity());
         }
 
-        ApplicationGateway applicationGateway = withCreate.withExistingPublicIpAddress(
+        withCreate = withCreate.withExistingPublicIpAddress(
                 client.publicIpAddresses().getById(getPublicIpAddress().getId())
             )
             .withInstanceCount(getInstanceCount())
             .withSize(ApplicationGatewaySkuName.fromString(getSkuSize()))
             .withTier(ApplicationGatewayTier.fromString(getSkuTier()))
             .withTags(getTags())
-            .withExistingSubnet(getNetwork().getId(), getSubnet())
-            .create();
+            .withExistingSubnet(getNetwork().getId(), getSubnet());
+
+        ApplicationGateway applicationGateway;
+
+        if (getDetachedCreate()) {
+            applicationGateway = AzureDetachedCreate.begin(
+                String.format("creation of application gateway [%s]", getName()),
+                withCreate.createAsync(),
+                () -> client.applicationGateways().getByResourceGroup(getResourceGroup().getName(), getName()));
+
+        } else {
+            applicationGateway = withCreate.create();
+        }
 
         copyFrom(applicationGateway);
     }
 
     @Override
     public void update(GyroUI ui, State state, Resource resource, Set<String> changedFieldNames) {
-        AzureResourceManager client = createClient(AzureResourceManager.class);
+        AzurePrefetch.invalidate();
 
-        ApplicationGateway applicationGateway = client.applicationGateways().getById(getId());
+        ApplicationGatewayResource oldApplicationGatewayResource = (ApplicationGatewayResource) resource;
 
-        ApplicationGateway.Update update = applicationGateway.update()
-            .withSize(ApplicationGatewaySkuName.fromString(getSkuSize()))
-            .withTier(ApplicationGatewayTier.fromString(getSkuTier()));
+        // The gateway PUT takes minutes, so collect the changes first and skip it when nothing that goes to Azure,
+        // such as only detached-create or subresources that are equal element by element, changed.
+        List<UnaryOperator<Update>> changes = new ArrayList<>();
 
-        ApplicationGatewayResource oldApplicationGatewayResource = (ApplicationGatewayResource) resource;
+        if (changedFieldNames.contains("sku-size")) {
+            changes.add(update -> update.withSize(ApplicationGatewaySkuName.fromString(getSkuSize())));
+        }
 
-        update = saveTags(oldApplicationGatewayResource.getTags(), update);
+        if (changedFieldNames.contains("sku-tier")) {
+            changes.add(update -> update.withTier(ApplicationGatewayTier.fromString(getSkuTier())));
+        }
 
-        update = saveListener(oldApplicationGatewayResource.getListener(), update);
+        if (changedFieldNames.contains("instance-count")) {
+            changes.add(update -> update.withInstanceCount(getInstanceCount()));
+        }
+
+        if (changedFieldNames.contains("enable-http2")) {
+            changes.add(update -> getEnableHttp2() ? update.withHttp2() : update.withoutHttp2());
+        }
 
-        update = saveRedirectConfiguration(oldApplicationGatewayResource.getRedirectConfiguration(), update);
+        if (changedFieldNames.contains("tags")) {
+            changes.add(update -> update.withTags(getTags()));
+        }
 
-        update = saveBackendHttpConfiguration(oldApplicationGatewayResource.getBackendHttpConfiguration(), update);
+        if (changedFieldNames.contains("listener")) {
+            saveListener(oldApplicationGatewayResource.getListener(), changes);
+        }
 
-        update = saveProbe(oldApplicationGatewayResource.getProbe(), update);
+        if (changedFieldNames.contains("redirect-configuration")) {
+            saveRedirectConfiguration(oldApplicationGatewayResource.getRedirectConfiguration(), changes);
+        }
 
-        update = saveBackend(oldApplicationGatewayResource.getBackend(), update);
+        if (changedFieldNames.contains("backend-http-configuration")) {
+            saveBackendHttpConfiguration(oldApplicationGatewayResource.getBackendHttpConfiguration(), changes);
+        }
+
+        if (changedFieldNames.contains("probe")) {
+            saveProbe(oldApplicationGatewayResource.getProbe(), changes);
+        }
+
+        if (changedFieldNames.contains("backend")) {
+            saveBackend(oldApplicationGatewayResource.getBackend(), changes);
+        }
 
-        update = saveRequestRoutingRule(oldApplicationGatewayResource.getRequestRoutingRule(), update);
+        if (changedFieldNames.contains("request-routing-rule")) {
+            saveRequestRoutingRule(oldApplicationGatewayResource.getRequestRoutingRule(), changes);
+        }
 
         if (changedFieldNames.contains("managed-service-identity")) {
             if (getManagedServiceIdentity() == null) {
                 throw new GyroException("Cannot unset 'managed-service-identity'.");
             }
 
-            update = update.withIdentity(getManagedServiceIdentity().toManagedServiceIdentity());
+            changes.add(update -> update.withIdentity(getManagedServiceIdentity().toManagedServiceIdentity()));
+        }
+
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        AzureResourceManager client = createClient(AzureResourceManager.class);
+
+        ApplicationGateway applicationGateway = client.applicationGateways().getById(getId());
+
+        ApplicationGateway.Update update = applicationGateway.update();
+
+        for (UnaryOperator<Update> change : changes) {
+            update = change.apply(update);
         }
 
         applicationGateway = update.apply();
@@ -774,12 +906,16 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.applicationGateways().deleteById(getId());
     }
 
-    private Update saveRequestRoutingRule(Set<RequestRoutingRule> oldRequestRoutingRules, Update update) {
+    private void saveRequestRoutingRule(
+        Set<RequestRoutingRule> oldRequestRoutingRules,
+        List<UnaryOperator<Update>> changes) {
         Set<String> requestRoutingRuleNames = getRequestRoutingRule().stream()
             .map(RequestRoutingRule::getName).collect(Collectors.toSet());
 
@@ -789,18 +925,22 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (String requestRoutingRuleName : requestRoutingRuleDeleteList) {
-            update = update.withoutRequestRoutingRule(requestRoutingRuleName);
+            changes.add(update -> update.withoutRequestRoutingRule(requestRoutingRuleName));
         }
 
         Set<String> oldRequestRoutingRuleNames = oldRequestRoutingRules.stream()
             .map(RequestRoutingRule::getName).collect(Collectors.toSet());
 
+        Map<String, RequestRoutingRule> oldRequestRoutingRuleMap = oldRequestRoutingRules.stream()
+            .collect(Collectors.toMap(RequestRoutingRule::getName, o -> o));
+
         List<RequestRoutingRule> requestRoutingRuleModificationList = getRequestRoutingRule().stream()
             .filter(o -> oldRequestRoutingRuleNames.contains(o.getName()))
+            .filter(o -> AzureDiff.isChanged(o, oldRequestRoutingRuleMap.get(o.getName())))
             .collect(Collectors.toList());
 
         for (RequestRoutingRule requestRoutingRule : requestRoutingRuleModificationList) {
-            update = requestRoutingRule.updateRequestRoutingRule(update);
+            changes.add(update -> requestRoutingRule.updateRequestRoutingRule(update));
         }
 
         List<RequestRoutingRule> requestRoutingRuleAdditionList = getRequestRoutingRule().stream()
@@ -808,13 +948,11 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (RequestRoutingRule requestRoutingRule : requestRoutingRuleAdditionList) {
-            update = requestRoutingRule.createRequestRoutingRule(update);
+            changes.add(update -> requestRoutingRule.createRequestRoutingRule(update));
         }
-
-        return update;
     }
 
-    private Update saveListener(Set<Listener> oldListeners, Update update) {
+    private void saveListener(Set<Listener> oldListeners, List<UnaryOperator<Update>> changes) {
         Set<String> listenerNames = getListener().stream()
             .map(Listener::getName).collect(Collectors.toSet());
 
@@ -824,18 +962,22 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (String listenerName : listenerDeleteList) {
-            update = update.withoutListener(listenerName);
+            changes.add(update -> update.withoutListener(listenerName));
         }
 
         Set<String> oldListenerNames = oldListeners.stream()
             .map(Listener::getName).collect(Collectors.toSet());
 
+        Map<String, Listener> oldListenerMap = oldListeners.stream()
+            .collect(Collectors.toMap(Listener::getName, o -> o));
+
         List<Listener> listenerModificationList = getListener().stream()
             .filter(o -> oldListenerNames.contains(o.getName()))
+            .filter(o -> AzureDiff.isChanged(o, oldListenerMap.get(o.getName())))
             .collect(Collectors.toList());
 
         for (Listener listener : listenerModificationList) {
-            update = listener.updateListener(update);
+            changes.add(update -> listener.updateListener(update));
         }
 
         List<Listener> listenerAdditionList = getListener().stream()
@@ -843,13 +985,13 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (Listener listener : listenerAdditionList) {
-            update = listener.createListener(update);
+            changes.add(update -> listener.createListener(update));
         }
-
-        return update;
     }
 
-    private Update saveRedirectConfiguration(Set<RedirectConfiguration> oldRedirectConfigurations, Update update) {
+    private void saveRedirectConfiguration(
+        Set<RedirectConfiguration> oldRedirectConfigurations,
+        List<UnaryOperator<Update>> changes) {
         Set<String> redirectConfigurationNames = getRedirectConfiguration().stream()
             .map(RedirectConfiguration::getName).collect(Collectors.toSet());
 
@@ -859,18 +1001,22 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (String redirectConfigurationName : redirectConfigurationDeleteList) {
-            update = update.withoutRedirectConfiguration(redirectConfigurationName);
+            changes.add(update -> update.withoutRedirectConfiguration(redirectConfigurationName));
         }
 
         Set<String> oldRedirectConfigurationNames = oldRedirectConfigurations.stream()
             .map(RedirectConfiguration::getName).collect(Collectors.toSet());
 
+        Map<String, RedirectConfiguration> oldRedirectConfigurationMap = oldRedirectConfigurations.stream()
+            .collect(Collectors.toMap(RedirectConfiguration::getName, o -> o));
+
         List<RedirectConfiguration> redirectConfigurationModificationList = getRedirectConfiguration().stream()
             .filter(o -> oldRedirectConfigurationNames.contains(o.getName()))
+            .filter(o -> AzureDiff.isChanged(o, oldRedirectConfigurationMap.get(o.getName())))
             .collect(Collectors.toList());
 
         for (RedirectConfiguration redirectConfiguration : redirectConfigurationModificationList) {
-            update = redirectConfiguration.updateRedirectConfiguration(update);
+            changes.add(update -> redirectConfiguration.updateRedirectConfiguration(update));
         }
 
         List<RedirectConfiguration> redirectConfigurationAdditionList = getRedirectConfiguration().stream()
@@ -878,15 +1024,13 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (RedirectConfiguration redirectConfiguration : redirectConfigurationAdditionList) {
-            update = redirectConfiguration.createRedirectConfiguration(update);
+            changes.add(update -> redirectConfiguration.createRedirectConfiguration(update));
         }
-
-        return update;
     }
 
-    private Update saveBackendHttpConfiguration(
+    private void saveBackendHttpConfiguration(
         Set<BackendHttpConfiguration> oldBackendHttpConfigurations,
-        Update update) {
+        List<UnaryOperator<Update>> changes) {
         Set<String> backendHttpConfigurationNames = getBackendHttpConfiguration().stream()
             .map(BackendHttpConfiguration::getName).collect(Collectors.toSet());
 
@@ -896,18 +1040,22 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (String backendHttpConfigurationName : backendHttpConfigurationDeleteList) {
-            update = update.withoutBackendHttpConfiguration(backendHttpConfigurationName);
+            changes.add(update -> update.withoutBackendHttpConfiguration(backendHttpConfigurationName));
         }
 
         Set<String> oldBackendHttpConfigurationNames = oldBackendHttpConfigurations.stream()
             .map(BackendHttpConfiguration::getName).collect(Collectors.toSet());
 
+        Map<String, BackendHttpConfiguration> oldBackendHttpConfigurationMap = oldBackendHttpConfigurations.stream()
+            .collect(Collectors.toMap(BackendHttpConfiguration::getName, o -> o));
+
         List<BackendHttpConfiguration> backendHttpConfigurationModificationList = getBackendHttpConfiguration().stream()
             .filter(o -> oldBackendHttpConfigurationNames.contains(o.getName()))
+            .filter(o -> AzureDiff.isChanged(o, oldBackendHttpConfigurationMap.get(o.getName())))
             .collect(Collectors.toList());
 
         for (BackendHttpConfiguration backendHttpConfiguration : backendHttpConfigurationModificationList) {
-            update = backendHttpConfiguration.updateBackendHttpConfiguration(update);
+            changes.add(update -> backendHttpConfiguration.updateBackendHttpConfiguration(update));
         }
 
         List<BackendHttpConfiguration> backendHttpConfigurationAdditionList = getBackendHttpConfiguration().stream()
@@ -915,13 +1063,11 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (BackendHttpConfiguration backendHttpConfiguration : backendHttpConfigurationAdditionList) {
-            update = backendHttpConfiguration.createBackendHttpConfiguration(update);
+            changes.add(update -> backendHttpConfiguration.createBackendHttpConfiguration(update));
         }
-
-        return update;
     }
 
-    private Update saveProbe(Set<Probe> oldProbes, Update update) {
+    private void saveProbe(Set<Probe> oldProbes, List<UnaryOperator<Update>> changes) {
         Set<String> probeNames = getProbe().stream()
             .map(Probe::getName).collect(Collectors.toSet());
 
@@ -931,18 +1077,22 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (String probeName : probeDeleteList) {
-            update = update.withoutProbe(probeName);
+            changes.add(update -> update.withoutProbe(probeName));
         }
 
         Set<String> oldProbeNames = oldProbes.stream()
             .map(Probe::getName).collect(Collectors.toSet());
 
+        Map<String, Probe> oldProbeMap = oldProbes.stream()
+            .collect(Collectors.toMap(Probe::getName, o -> o));
+
         List<Probe> probeModificationList = getProbe().stream()
             .filter(o -> oldProbeNames.contains(o.getName()))
+            .filter(o -> AzureDiff.isChanged(o, oldProbeMap.get(o.getName())))
             .collect(Collectors.toList());
 
         for (Probe probe : probeModificationList) {
-            update = probe.updateProbe(update);
+            changes.add(update -> probe.updateProbe(update));
         }
 
         List<Probe> probeAdditionList = getProbe().stream()
@@ -950,13 +1100,11 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (Probe probe : probeAdditionList) {
-            update = probe.createProbe(update);
+            changes.add(update -> probe.createProbe(update));
         }
-
-        return update;
     }
 
-    private Update saveBackend(Set<Backend> oldBackends, Update update) {
+    private void saveBackend(Set<Backend> oldBackends, List<UnaryOperator<Update>> changes) {
         Set<String> backendNames = getBackend().stream()
             .map(Backend::getName).collect(Collectors.toSet());
 
@@ -966,7 +1114,7 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (String backendName : backendDeleteList) {
-            update = update.withoutBackend(backendName);
+            changes.add(update -> update.withoutBackend(backendName));
         }
 
         Set<String> oldBackendNames = oldBackends.stream()
@@ -977,11 +1125,12 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
 
         List<Backend> backendModificationList = getBackend().stream()
             .filter(o -> oldBackendNames.contains(o.getName()))
+            .filter(o -> AzureDiff.isChanged(o, oldBackendMap.get(o.getName())))
             .collect(Collectors.toList());
 
         for (Backend backend : backendModificationList) {
             Backend oldBackend = oldBackendMap.get(backend.getName());
-            update = backend.updateBackend(update, oldBackend.getIpAddresses(), oldBackend.getFqdns());
+            changes.add(update -> backend.updateBackend(update, oldBackend.getIpAddresses(), oldBackend.getFqdns()));
         }
 
         List<Backend> backendAdditionList = getBackend().stream()
@@ -989,35 +1138,7 @@ public class ApplicationGatewayResource extends AzureResource implements Copyabl
             .collect(Collectors.toList());
 
         for (Backend backend : backendAdditionList) {
-            update = backend.createBackend(update);
-        }
-
-        return update;
-    }
-
-    private Update saveTags(Map<String, String> oldTags, Update update) {
-        Map<String, String> addTags;
-
-        if (oldTags.isEmpty()) {
-            addTags = getTags();
-        } else {
-            List<String> removeTags = oldTags.keySet().stream()
-                .filter(o -> !getTags().containsKey(o))
-                .collect(Collectors.toList());
-
-            for (String tag : removeTags) {
-                update = update.withoutTag(tag);
-            }
-
-            addTags = getTags().entrySet().stream()
-                .filter(o -> oldTags.containsKey(o.getKey()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            changes.add(update -> backend.createBackend(update));
         }
-
-        if (!addTags.isEmpty()) {
-            update = update.withTags(addTags);
-        }
-
-        return update;
     }
 }
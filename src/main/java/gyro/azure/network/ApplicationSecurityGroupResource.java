@@ -23,6 +23,8 @@ import java.util.Set;
 import com.azure.core.management.Region;
 import com.azure.resourcemanager.AzureResourceManager;
 import com.azure.resourcemanager.network.models.ApplicationSecurityGroup;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -180,9 +182,18 @@ public class ApplicationSecurityGroupResource extends AzureResource implements C
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        ApplicationSecurityGroup applicationSecurityGroup = client.applicationSecurityGroups().getById(getId());
+        ApplicationSecurityGroup applicationSecurityGroup = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            ApplicationSecurityGroup.class,
+            getId(),
+            () -> client.applicationSecurityGroups().getById(getId()));
 
         if (applicationSecurityGroup == null) {
             return false;
@@ -195,6 +206,8 @@ public class ApplicationSecurityGroupResource extends AzureResource implements C
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         ApplicationSecurityGroup applicationSecurityGroup = client.applicationSecurityGroups().define(getName())
@@ -208,6 +221,8 @@ public class ApplicationSecurityGroupResource extends AzureResource implements C
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedProperties) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.applicationSecurityGroups().getById(getId()).update().withTags(getTags()).apply();
@@ -215,6 +230,8 @@ public class ApplicationSecurityGroupResource extends AzureResource implements C
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.applicationSecurityGroups().deleteById(getId());
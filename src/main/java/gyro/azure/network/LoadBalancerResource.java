@@ -22,6 +22,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import com.azure.core.management.Region;
@@ -37,6 +38,9 @@ import com.azure.resourcemanager.network.models.LoadBalancingRule;
 import com.azure.resourcemanager.network.models.Network;
 import com.azure.resourcemanager.network.models.PublicIpAddress;
 import com.azure.resourcemanager.network.models.TransportProtocol;
+import gyro.azure.AzureConditionalGet;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -110,6 +114,7 @@ public class LoadBalancerResource extends AzureResource implements Copyable<Load
     private Map<String, String> tags;
     private Set<InboundNatPool> inboundNatPool;
     private Set<InboundNatRule> inboundNatRule;
+    private String etag;
 
     /**
      * The Health Check Http Probes associated with the Load Balancer.
@@ -307,8 +312,22 @@ public class LoadBalancerResource extends AzureResource implements Copyable<Load
         this.inboundNatRule = inboundNatRule;
     }
 
+    /**
+     * The etag value of the Load Balancer.
+     */
+    @Output
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
     @Override
     public void copyFrom(LoadBalancer loadBalancer) {
+        setEtag(loadBalancer.innerModel().etag());
+
         //http probes
         getHealthCheckProbeHttp().clear();
         for (Map.Entry<String, LoadBalancerHttpProbe> httpProbe : loadBalancer.httpProbes().entrySet()) {
@@ -386,21 +405,43 @@ public class LoadBalancerResource extends AzureResource implements Copyable<Load
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        LoadBalancer loadBalancer = client.loadBalancers().getById(getId());
+        AtomicBoolean notModified = new AtomicBoolean();
+
+        LoadBalancer loadBalancer = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            LoadBalancer.class,
+            getId(),
+            () -> AzureConditionalGet.get(
+                client.loadBalancers().getByIdAsync(getId()),
+                getEtag(),
+                () -> notModified.set(true)));
+
+        if (notModified.get()) {
+            return true;
+        }
 
         if (loadBalancer == null) {
             return false;
         }
 
-        copyFrom(loadBalancer);
+        if (!AzureConditionalGet.isSameVersion(getEtag(), loadBalancer.innerModel().etag())) {
+            copyFrom(loadBalancer);
+        }
 
         return true;
     }
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         LoadBalancer.DefinitionStages.WithLBRuleOrNat lb = client.loadBalancers()
@@ -506,6 +547,8 @@ public class LoadBalancerResource extends AzureResource implements Copyable<Load
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         LoadBalancer loadBalancer = client.loadBalancers().getById(getId());
@@ -633,6 +676,8 @@ public class LoadBalancerResource extends AzureResource implements Copyable<Load
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.loadBalancers().deleteByResourceGroup(getResourceGroup().getName(), getName());
@@ -28,6 +28,8 @@ import com.azure.resourcemanager.AzureResourceManager;
 import com.azure.resourcemanager.network.models.NetworkInterface;
 import com.azure.resourcemanager.network.models.NicIpConfiguration;
 import com.psddev.dari.util.ObjectUtils;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -223,9 +225,18 @@ public class NetworkInterfaceResource extends AzureResource implements Copyable<
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        NetworkInterface networkInterface = getNetworkInterface(client);
+        NetworkInterface networkInterface = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            NetworkInterface.class,
+            getId(),
+            () -> getNetworkInterface(client));
 
         if (networkInterface == null) {
             return false;
@@ -238,6 +249,8 @@ public class NetworkInterfaceResource extends AzureResource implements Copyable<
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         NetworkInterface.DefinitionStages.WithPrimaryPrivateIP withPrimaryPrivateIP = client.networkInterfaces()
@@ -286,6 +299,8 @@ public class NetworkInterfaceResource extends AzureResource implements Copyable<
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         NetworkInterface networkInterface = getNetworkInterface(client);
@@ -316,6 +331,8 @@ public class NetworkInterfaceResource extends AzureResource implements Copyable<
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.networkInterfaces().deleteByResourceGroup(getResourceGroup().getName(), getName());
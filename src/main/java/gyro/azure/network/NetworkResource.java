@@ -28,8 +28,12 @@ import com.azure.core.management.Region;
 import com.azure.resourcemanager.AzureResourceManager;
 import com.azure.resourcemanager.network.models.Network;
 import com.azure.resourcemanager.network.models.Subnet;
+import gyro.azure.AzureConditionalGet;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
+import gyro.azure.ParentSnapshot;
 import gyro.azure.resources.ResourceGroupResource;
 import gyro.core.GyroUI;
 import gyro.core.Type;
@@ -85,6 +89,21 @@ public class NetworkResource extends AzureResource implements Copyable<Network>
     private Boolean isDdosProtectionEnabled;
     private String ddosProtectionPlanId;
     private Set<String> dnsServerIPs;
+    private String etag;
+
+    private final ParentSnapshot<Network> snapshot = new ParentSnapshot<>(() -> {
+        AzureResourceManager client = createClient(AzureResourceManager.class);
+
+        return AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            Network.class,
+            getId(),
+            () -> AzureConditionalGet.get(
+                client.networks().getByIdAsync(getId()),
+                getEtag(),
+                () -> snapshot().notModified()));
+    });
 
     /**
      * Name of the Network.
@@ -222,6 +241,18 @@ public class NetworkResource extends AzureResource implements Copyable<Network>
         this.dnsServerIPs = dnsServerIPs;
     }
 
+    /**
+     * The etag value of the Network.
+     */
+    @Output
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
     @Override
     public void copyFrom(Network network) {
         setId(network.id());
@@ -233,6 +264,7 @@ public class NetworkResource extends AzureResource implements Copyable<Network>
         setDdosProtectionEnabled(network.isDdosProtectionEnabled());
         setDdosProtectionPlanId(network.ddosProtectionPlanId());
         setDnsServerIPs(new HashSet<>(network.dnsServerIPs()));
+        setEtag(network.innerModel().etag());
 
         getSubnet().clear();
         if (!network.subnets().isEmpty()) {
@@ -246,21 +278,31 @@ public class NetworkResource extends AzureResource implements Copyable<Network>
 
     @Override
     public boolean refresh() {
-        AzureResourceManager client = createClient(AzureResourceManager.class);
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
 
-        Network network = client.networks().getById(getId());
+    boolean doRefresh() {
+        Network network = snapshot.get("network");
+
+        if (snapshot.isNotModified()) {
+            return true;
+        }
 
         if (network == null) {
             return false;
         }
 
-        copyFrom(network);
+        if (!AzureConditionalGet.isSameVersion(getEtag(), network.innerModel().etag())) {
+            copyFrom(network);
+        }
 
         return true;
     }
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         Network.DefinitionStages.WithCreate networkDefWithoutAddress = client.networks()
@@ -281,11 +323,14 @@ public class NetworkResource extends AzureResource implements Copyable<Network>
             .withTags(getTags())
             .create();
 
+        snapshot.set(network);
         copyFrom(network);
     }
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         Network network = client.networks().getById(getId());
@@ -318,18 +363,26 @@ public class NetworkResource extends AzureResource implements Copyable<Network>
 
         if (!changedFieldNames.isEmpty()) {
             update.apply();
+            snapshot.invalidate();
         }
 
     }
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.networks().deleteById(getId());
+        snapshot.invalidate();
     }
 
     Network getNetwork(AzureResourceManager client) {
         return client.networks().getById(getId());
     }
+
+    ParentSnapshot<Network> snapshot() {
+        return snapshot;
+    }
 }
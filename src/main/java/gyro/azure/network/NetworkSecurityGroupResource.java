@@ -16,17 +16,26 @@
 
 package gyro.azure.network;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import com.azure.core.management.Region;
+import com.azure.core.management.exception.ManagementException;
 import com.azure.resourcemanager.AzureResourceManager;
 import com.azure.resourcemanager.network.models.NetworkSecurityGroup;
+import com.azure.resourcemanager.network.models.NetworkSecurityRule;
+import gyro.azure.AzureConditionalGet;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
+import gyro.azure.ParentSnapshot;
 import gyro.azure.resources.ResourceGroupResource;
+import gyro.core.GyroException;
 import gyro.core.GyroUI;
 import gyro.core.Type;
 import gyro.core.resource.Id;
@@ -35,6 +44,7 @@ import gyro.core.resource.Resource;
 import gyro.core.resource.Updatable;
 import gyro.core.scope.State;
 import gyro.core.validation.Required;
+import gyro.core.validation.ValidationError;
 
 /**
  * Creates a network security group.
@@ -82,6 +92,23 @@ public class NetworkSecurityGroupResource extends AzureResource implements Copya
     private String id;
     private Set<NetworkSecurityGroupRuleResource> rule;
     private Map<String, String> tags;
+    private String etag;
+
+    private boolean rulesWritten;
+
+    private final ParentSnapshot<NetworkSecurityGroup> snapshot = new ParentSnapshot<>(() -> {
+        AzureResourceManager client = createClient(AzureResourceManager.class);
+
+        return AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            NetworkSecurityGroup.class,
+            getId(),
+            () -> AzureConditionalGet.get(
+                client.networkSecurityGroups().getByIdAsync(getId()),
+                getEtag(),
+                () -> snapshot().notModified()));
+    });
 
     /**
      * Name of the Network Security Group.
@@ -154,12 +181,25 @@ public class NetworkSecurityGroupResource extends AzureResource implements Copya
         this.tags = tags;
     }
 
+    /**
+     * The etag value of the Network Security Group.
+     */
+    @Output
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
     @Override
     public void copyFrom(NetworkSecurityGroup networkSecurityGroup) {
         setName(networkSecurityGroup.name());
         setId(networkSecurityGroup.id());
         setResourceGroup(findById(ResourceGroupResource.class, networkSecurityGroup.resourceGroupName()));
         setTags(networkSecurityGroup.tags());
+        setEtag(networkSecurityGroup.innerModel().etag());
 
         getRule().clear();
         for (String key : networkSecurityGroup.securityRules().keySet()) {
@@ -171,21 +211,31 @@ public class NetworkSecurityGroupResource extends AzureResource implements Copya
 
     @Override
     public boolean refresh() {
-        AzureResourceManager client = createClient(AzureResourceManager.class);
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
 
-        NetworkSecurityGroup networkSecurityGroup = client.networkSecurityGroups().getById(getId());
+    private boolean doRefresh() {
+        NetworkSecurityGroup networkSecurityGroup = snapshot.get("network-security-group");
+
+        if (snapshot.isNotModified()) {
+            return true;
+        }
 
         if (networkSecurityGroup == null) {
             return false;
         }
 
-        copyFrom(networkSecurityGroup);
+        if (!AzureConditionalGet.isSameVersion(getEtag(), networkSecurityGroup.innerModel().etag())) {
+            copyFrom(networkSecurityGroup);
+        }
 
         return true;
     }
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         NetworkSecurityGroup networkSecurityGroup = client.networkSecurityGroups()
@@ -196,21 +246,136 @@ public class NetworkSecurityGroupResource extends AzureResource implements Copya
             .create();
 
         setId(networkSecurityGroup.id());
+        snapshot.invalidate();
     }
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         NetworkSecurityGroup networkSecurityGroup = client.networkSecurityGroups().getById(getId());
+        NetworkSecurityGroup.Update update = networkSecurityGroup.update().withTags(getTags());
+
+        if (changedFieldNames.contains("rule")) {
+            update = withRules(networkSecurityGroup, update);
+        }
+
+        apply(update);
 
-        networkSecurityGroup.update().withTags(getTags()).apply();
+        if (changedFieldNames.contains("rule")) {
+            rulesWritten = true;
+        }
     }
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.networkSecurityGroups().deleteById(getId());
+        snapshot.invalidate();
+    }
+
+    @Override
+    public List<ValidationError> validate() {
+        List<ValidationError> errors = new ArrayList<>();
+        Map<String, String> priorities = new HashMap<>();
+
+        for (NetworkSecurityGroupRuleResource rule : getRule()) {
+            if (rule.getPriority() == null) {
+                continue;
+            }
+
+            String direction = rule.getInboundRule() ? "inbound" : "outbound";
+            String other = priorities.putIfAbsent(direction + rule.getPriority(), rule.getName());
+
+            if (other != null) {
+                errors.add(new ValidationError(
+                    this,
+                    "rule",
+                    String.format(
+                        "Rules '%s' and '%s' have the same %s priority %d.",
+                        other,
+                        rule.getName(),
+                        direction,
+                        rule.getPriority())));
+            }
+        }
+
+        return errors;
+    }
+
+    ParentSnapshot<NetworkSecurityGroup> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Makes the security rules of the group match {@link #getRule()} with a single update, which is applied before
+     * this returns. Every rule change in the configuration goes out in the same PUT, so Azure checks priorities
+     * against the final set of rules and swapping two priorities works. Later calls for the same configuration,
+     * from the other rules, do nothing.
+     */
+    synchronized void writeRules() {
+        if (rulesWritten) {
+            return;
+        }
+
+        AzureResourceManager client = createClient(AzureResourceManager.class);
+
+        NetworkSecurityGroup networkSecurityGroup = client.networkSecurityGroups().getById(getId());
+
+        apply(withRules(networkSecurityGroup, networkSecurityGroup.update()));
+        rulesWritten = true;
+    }
+
+    /**
+     * Removes the security rule with the given name, unless {@link #writeRules()} already did.
+     */
+    void removeRule(String name) {
+        AzureResourceManager client = createClient(AzureResourceManager.class);
+
+        NetworkSecurityGroup networkSecurityGroup = client.networkSecurityGroups().getById(getId());
+
+        if (networkSecurityGroup.securityRules().containsKey(name)) {
+            apply(networkSecurityGroup.update().withoutRule(name));
+        }
+    }
+
+    private NetworkSecurityGroup.Update withRules(
+        NetworkSecurityGroup networkSecurityGroup,
+        NetworkSecurityGroup.Update update) {
+
+        Map<String, NetworkSecurityRule> existing = networkSecurityGroup.securityRules();
+        Set<String> names = new HashSet<>();
+
+        for (NetworkSecurityGroupRuleResource rule : getRule()) {
+            names.add(rule.getName());
+            update = existing.containsKey(rule.getName()) ? rule.updateIn(update) : rule.defineIn(update);
+        }
+
+        for (String name : existing.keySet()) {
+            if (!names.contains(name)) {
+                update = update.withoutRule(name);
+            }
+        }
+
+        return update;
+    }
+
+    private void apply(NetworkSecurityGroup.Update update) {
+        try {
+            update.apply();
+
+        } catch (ManagementException error) {
+            throw new GyroException(
+                String.format("Unable to update network security group [%s]: %s", getName(), error.getMessage()),
+                error);
+
+        } finally {
+            snapshot.invalidate();
+        }
     }
 }
@@ -21,7 +21,6 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import com.azure.resourcemanager.AzureResourceManager;
 import com.azure.resourcemanager.network.models.NetworkSecurityGroup;
 import com.azure.resourcemanager.network.models.NetworkSecurityRule;
 import com.azure.resourcemanager.network.models.SecurityRuleAccess;
@@ -285,20 +284,57 @@ public class NetworkSecurityGroupRuleResource extends AzureResource implements C
 
     @Override
     public boolean refresh() {
-        return false;
+        return refreshIncrementally(incrementalRefreshId(), this::doRefresh);
+    }
+
+    private String incrementalRefreshId() {
+        String parentId = ((NetworkSecurityGroupResource) parent()).getId();
+
+        return parentId != null ? parentId + "/securityRules/" + getName() : null;
+    }
+
+    private boolean doRefresh() {
+        NetworkSecurityGroupResource parent = (NetworkSecurityGroupResource) parent();
+
+        NetworkSecurityGroup networkSecurityGroup = parent.snapshot().get("rule " + getName());
+
+        if (parent.snapshot().isNotModified()) {
+            return true;
+        }
+
+        if (networkSecurityGroup == null) {
+            return false;
+        }
+
+        NetworkSecurityRule networkSecurityRule = networkSecurityGroup.securityRules().get(getName());
+
+        if (networkSecurityRule == null) {
+            return false;
+        }
+
+        copyFrom(networkSecurityRule);
+
+        return true;
     }
 
     @Override
     public void create(GyroUI ui, State state) {
-        AzureResourceManager client = createClient(AzureResourceManager.class);
+        ((NetworkSecurityGroupResource) parent()).writeRules();
+    }
 
-        NetworkSecurityGroupResource parent = (NetworkSecurityGroupResource) parent();
+    @Override
+    public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        ((NetworkSecurityGroupResource) parent()).writeRules();
+    }
 
-        NetworkSecurityGroup networkSecurityGroup = client.networkSecurityGroups().getById(parent.getId());
+    @Override
+    public void delete(GyroUI ui, State state) {
+        ((NetworkSecurityGroupResource) parent()).removeRule(getName());
+    }
 
-        NetworkSecurityRule.UpdateDefinitionStages
-            .Blank<NetworkSecurityGroup.Update> updateBlank = networkSecurityGroup
-            .update().defineRule(getName());
+    NetworkSecurityGroup.Update defineIn(NetworkSecurityGroup.Update groupUpdate) {
+        NetworkSecurityRule.UpdateDefinitionStages.Blank<NetworkSecurityGroup.Update> updateBlank =
+            groupUpdate.defineRule(getName());
 
         NetworkSecurityRule.UpdateDefinitionStages.WithSourceAddressOrSecurityGroup<NetworkSecurityGroup.Update> withDirection;
 
@@ -347,22 +383,15 @@ public class NetworkSecurityGroupRuleResource extends AzureResource implements C
             withToPorts = withToAddress.toPortRanges(getToPorts().toArray(new String[0]));
         }
 
-        withToPorts
+        return withToPorts
             .withProtocol(protocolMap.get(getProtocol()))
             .withDescription(getDescription())
             .withPriority(getPriority())
-            .attach().apply();
+            .attach();
     }
 
-    @Override
-    public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
-        AzureResourceManager client = createClient(AzureResourceManager.class);
-
-        NetworkSecurityGroupResource parent = (NetworkSecurityGroupResource) parent();
-
-        NetworkSecurityGroup networkSecurityGroup = client.networkSecurityGroups().getById(parent.getId());
-
-        NetworkSecurityRule.Update update = networkSecurityGroup.update().updateRule(getName());
+    NetworkSecurityGroup.Update updateIn(NetworkSecurityGroup.Update groupUpdate) {
+        NetworkSecurityRule.Update update = groupUpdate.updateRule(getName());
 
         if (getInboundRule()) {
             update = getAllowRule() ? update.allowInbound() : update.denyInbound();
@@ -402,22 +431,11 @@ public class NetworkSecurityGroupRuleResource extends AzureResource implements C
             update = update.toPortRanges(getToPorts().toArray(new String[0]));
         }
 
-        update
+        return update
             .withProtocol(protocolMap.get(getProtocol()))
             .withDescription(getDescription())
             .withPriority(getPriority())
-            .parent().apply();
-    }
-
-    @Override
-    public void delete(GyroUI ui, State state) {
-        AzureResourceManager client = createClient(AzureResourceManager.class);
-
-        NetworkSecurityGroupResource parent = (NetworkSecurityGroupResource) parent();
-
-        NetworkSecurityGroup networkSecurityGroup = client.networkSecurityGroups().getById(parent.getId());
-
-        networkSecurityGroup.update().withoutRule(getName()).apply();
+            .parent();
     }
 
     @Override
@@ -31,6 +31,8 @@ import com.azure.resourcemanager.network.models.PublicIPSkuType;
 import com.azure.resourcemanager.network.models.PublicIpAddress;
 import com.azure.resourcemanager.resources.fluentcore.arm.AvailabilityZoneId;
 import com.psddev.dari.util.ObjectUtils;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -319,9 +321,18 @@ public class PublicIpAddressResource extends AzureResource implements Copyable<P
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
-        PublicIpAddress publicIpAddress = client.publicIpAddresses().getById(getId());
+        PublicIpAddress publicIpAddress = AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            PublicIpAddress.class,
+            getId(),
+            () -> client.publicIpAddresses().getById(getId()));
 
         if (publicIpAddress == null) {
             return false;
@@ -334,6 +345,8 @@ public class PublicIpAddressResource extends AzureResource implements Copyable<P
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         PublicIpAddress.DefinitionStages.WithCreate withCreate = client.publicIpAddresses()
@@ -382,6 +395,8 @@ public class PublicIpAddressResource extends AzureResource implements Copyable<P
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         PublicIpAddress publicIpAddress = client.publicIpAddresses().getById(getId());
@@ -425,6 +440,8 @@ public class PublicIpAddressResource extends AzureResource implements Copyable<P
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
         client.publicIpAddresses().deleteById(getId());
     }
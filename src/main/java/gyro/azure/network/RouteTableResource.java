@@ -27,8 +27,11 @@ import com.azure.resourcemanager.network.models.Route;
 import com.azure.resourcemanager.network.models.Route.DefinitionStages.WithNextHopType;
 import com.azure.resourcemanager.network.models.RouteNextHopType;
 import com.azure.resourcemanager.network.models.RouteTable;
+import gyro.azure.AzureCredentials;
+import gyro.azure.AzurePrefetch;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
+import gyro.azure.ParentSnapshot;
 import gyro.azure.resources.ResourceGroupResource;
 import gyro.core.GyroUI;
 import gyro.core.Type;
@@ -72,6 +75,17 @@ public class RouteTableResource extends AzureResource implements Copyable<RouteT
     private Set<RouteResource> route;
     private Map<String, String> tags;
 
+    private final ParentSnapshot<RouteTable> snapshot = new ParentSnapshot<>(() -> {
+        AzureResourceManager client = createClient(AzureResourceManager.class);
+
+        return AzurePrefetch.get(
+            credentials(AzureCredentials.class),
+            client,
+            RouteTable.class,
+            getId(),
+            () -> client.routeTables().getById(getId()));
+    });
+
     /**
      * Determines whether to disable the routes learned by border gateway protocol on the Route Table. Defaults to ``true``.
      */
@@ -176,9 +190,11 @@ public class RouteTableResource extends AzureResource implements Copyable<RouteT
 
     @Override
     public boolean refresh() {
-        AzureResourceManager client = createClient(AzureResourceManager.class);
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
 
-        RouteTable routeTable = client.routeTables().getById(getId());
+    private boolean doRefresh() {
+        RouteTable routeTable = snapshot.get("route-table");
 
         if (routeTable == null) {
             return false;
@@ -191,6 +207,8 @@ public class RouteTableResource extends AzureResource implements Copyable<RouteT
 
     @Override
     public void create(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         RouteTable.DefinitionStages.WithCreate withCreate;
@@ -216,10 +234,13 @@ public class RouteTableResource extends AzureResource implements Copyable<RouteT
         RouteTable routeTable = withCreate.withTags(getTags()).create();
 
         setId(routeTable.id());
+        snapshot.set(routeTable);
     }
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         RouteTableResource currentResource = (RouteTableResource) current;
@@ -250,13 +271,16 @@ public class RouteTableResource extends AzureResource implements Copyable<RouteT
             update = update.withEnableBgpRoutePropagation();
         }
 
-        update.withTags(getTags()).apply();
+        snapshot.set(update.withTags(getTags()).apply());
     }
 
     @Override
     public void delete(GyroUI ui, State state) {
+        AzurePrefetch.invalidate();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.routeTables().deleteById(getId());
+        snapshot.invalidate();
     }
 }
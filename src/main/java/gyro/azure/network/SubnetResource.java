@@ -156,7 +156,31 @@ public class SubnetResource extends AzureResource implements Copyable<Subnet> {
 
     @Override
     public boolean refresh() {
-        return false;
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
+        NetworkResource parent = (NetworkResource) parent();
+
+        Network network = parent.snapshot().get("subnet " + getName());
+
+        if (parent.snapshot().isNotModified()) {
+            return true;
+        }
+
+        if (network == null) {
+            return false;
+        }
+
+        Subnet subnet = network.subnets().get(getName());
+
+        if (subnet == null) {
+            return false;
+        }
+
+        copyFrom(subnet);
+
+        return true;
     }
 
     @Override
@@ -188,7 +212,8 @@ public class SubnetResource extends AzureResource implements Copyable<Subnet> {
         Network response = updateWithAttach.attach().apply();
         setId(response.subnets().get(getName()).id());
 
-        parent.refresh();
+        parent.snapshot().set(response);
+        parent.doRefresh();
     }
 
     @Override
@@ -235,7 +260,7 @@ public class SubnetResource extends AzureResource implements Copyable<Subnet> {
             }
         }
 
-        update.parent().apply();
+        parent.snapshot().set(update.parent().apply());
     }
 
     @Override
@@ -246,7 +271,7 @@ public class SubnetResource extends AzureResource implements Copyable<Subnet> {
 
         Network network = parent.getNetwork(client);
 
-        network.update().withoutSubnet(getName()).apply();
+        parent.snapshot().set(network.update().withoutSubnet(getName()).apply());
     }
 
     @Override
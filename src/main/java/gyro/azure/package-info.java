@@ -95,6 +95,23 @@
  *         credential-file-path: '<azure_credentials_file_path>'
  *     {@literal @}end
  *
+ * Refreshing a large project issues at least one request per resource. Set ``incremental-refresh`` to ``true`` to
+ * only refresh resources the subscription activity log reports as changed since the previous run, all other
+ * resources keep their current state. Drift you chose not to apply in an earlier run is not reported again, so run
+ * without it from time to time.
+ *
+ * .. code:: shell
+ *
+ *     {@literal @}credentials 'azure::credentials'
+ *         region: 'westus'
+ *         credential-file-path: '<azure_credentials_file_path>'
+ *         incremental-refresh: true
+ *     {@literal @}end
+ *
+ * Changes are read from the activity log by default. Set ``incremental-refresh-source`` to ``resource-graph`` to
+ * read them from the Azure Resource Graph change history with a single query instead. That history only goes back
+ * 14 days, older runs fall back to a full refresh.
+ *
  * To use a non-default set of credentials you must explicitly use them in your resource definitions:
  *
  * .. code:: shell
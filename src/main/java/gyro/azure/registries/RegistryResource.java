@@ -26,11 +26,15 @@ import java.util.stream.Collectors;
 
 import com.azure.core.management.Region;
 import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.containerregistry.fluent.WebhooksClient;
+import com.azure.resourcemanager.containerregistry.fluent.models.CallbackConfigInner;
+import com.azure.resourcemanager.containerregistry.fluent.models.WebhookInner;
 import com.azure.resourcemanager.containerregistry.models.PublicNetworkAccess;
 import com.azure.resourcemanager.containerregistry.models.Registry;
 import com.azure.resourcemanager.containerregistry.models.Registry.Update;
 import com.azure.resourcemanager.containerregistry.models.Webhook.UpdateResourceStages.WithAttach;
 import com.azure.resourcemanager.containerregistry.models.WebhookAction;
+import gyro.azure.AzureParallel;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -69,6 +73,8 @@ import gyro.core.validation.ValidationError;
 @Type("registry")
 public class RegistryResource extends AzureResource implements Copyable<Registry> {
 
+    private static final int WEBHOOK_CONCURRENCY = 8;
+
     private String name;
     private ResourceGroupResource resourceGroup;
     private String sku;
@@ -234,16 +240,33 @@ public class RegistryResource extends AzureResource implements Copyable<Registry
 
         getWebhook().clear();
         if (registry.webhooks() != null) {
-            registry.webhooks().list().forEach(hook -> {
+            WebhooksClient webhooksClient = registry.manager().serviceClient().getWebhooks();
+
+            // The webhook list does not include the service uri and custom headers, each webhook needs its own
+            // callback config call, so fetch those concurrently.
+            List<WebhookInner> hooks = webhooksClient.list(registry.resourceGroupName(), registry.name())
+                .stream()
+                .collect(Collectors.toList());
+
+            List<CallbackConfigInner> callbackConfigs = AzureParallel.map(
+                hooks,
+                WEBHOOK_CONCURRENCY,
+                hook -> webhooksClient.getCallbackConfig(registry.resourceGroupName(), registry.name(), hook.name()));
+
+            for (int i = 0; i < hooks.size(); i++) {
                 Webhook webhook = newSubresource(Webhook.class);
-                webhook.copyFrom(hook);
+                webhook.copyFrom(hooks.get(i), callbackConfigs.get(i));
                 getWebhook().add(webhook);
-            });
+            }
         }
     }
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         Registry registry = client.containerRegistries()
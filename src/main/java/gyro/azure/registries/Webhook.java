@@ -23,6 +23,9 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.azure.core.util.ExpandableStringEnum;
+import com.azure.resourcemanager.containerregistry.fluent.models.CallbackConfigInner;
+import com.azure.resourcemanager.containerregistry.fluent.models.WebhookInner;
+import com.azure.resourcemanager.containerregistry.models.WebhookStatus;
 import gyro.azure.Copyable;
 import gyro.core.resource.Diffable;
 import gyro.core.resource.Updatable;
@@ -157,6 +160,16 @@ public class Webhook extends Diffable implements Copyable<com.azure.resourcemana
         setTags(model.tags());
     }
 
+    void copyFrom(WebhookInner model, CallbackConfigInner callbackConfig) {
+        setName(model.name());
+        setActions(model.actions().stream().map(ExpandableStringEnum::toString).collect(Collectors.toSet()));
+        setCustomHeaders(callbackConfig.customHeaders());
+        setEnabled(WebhookStatus.ENABLED.equals(model.status()));
+        setServiceUri(callbackConfig.serviceUri());
+        setRepositoryScope(model.scope());
+        setTags(model.tags());
+    }
+
     @Override
     public String primaryKey() {
         return getName();
@@ -202,6 +202,10 @@ public class SqlServerResource extends AzureResource implements Copyable<SqlServ
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         SqlServer sqlServer = client.sqlServers().getById(getId());
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure.storage;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.ParallelTransferOptions;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import gyro.core.GyroException;
+import gyro.core.GyroInputStream;
+
+/**
+ * Hashes and uploads local files for the blob resources.
+ *
+ * Uploads are split into blocks that are sent in parallel, and the Base64 MD5 of the content is stored on the blob
+ * so later runs can tell whether the local file changed without downloading it.
+ */
+final class BlobTransfer {
+
+    static final int DEFAULT_BLOCK_SIZE = 8;
+    static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+    private static final long MEBIBYTE = 1024L * 1024L;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private BlobTransfer() {
+    }
+
+    /**
+     * Returns the Base64 MD5 of the stream's content, in the same form as the blob's {@code Content-MD5}.
+     */
+    static String md5(Supplier<GyroInputStream> input) {
+        MessageDigest digest;
+
+        try {
+            digest = MessageDigest.getInstance("MD5");
+
+        } catch (NoSuchAlgorithmException error) {
+            throw new GyroException(error.getMessage(), error);
+        }
+
+        try (GyroInputStream gyroInput = input.get()) {
+            InputStream buffered = new BufferedInputStream(gyroInput, BUFFER_SIZE);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+
+            while ((read = buffered.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+
+        } catch (IOException error) {
+            throw new GyroException(error.getMessage(), error);
+        }
+
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    /**
+     * Uploads the stream to {@code blob}, replacing its content, in blocks of {@code blockSize} MiB with at most
+     * {@code maxConcurrency} blocks in flight. Content no bigger than one block goes up in a single request.
+     */
+    static void upload(
+        BlobClient blob,
+        Supplier<GyroInputStream> input,
+        String md5,
+        int blockSize,
+        int maxConcurrency) {
+
+        ParallelTransferOptions transferOptions = new ParallelTransferOptions()
+            .setBlockSizeLong(blockSize * MEBIBYTE)
+            .setMaxSingleUploadSizeLong(blockSize * MEBIBYTE)
+            .setMaxConcurrency(maxConcurrency);
+
+        try (GyroInputStream gyroInput = input.get()) {
+            blob.uploadWithResponse(
+                new BlobParallelUploadOptions(new BufferedInputStream(gyroInput, BUFFER_SIZE))
+                    .setParallelTransferOptions(transferOptions)
+                    .setHeaders(new BlobHttpHeaders().setContentMd5(Base64.getDecoder().decode(md5))),
+                null,
+                Context.NONE);
+        }
+    }
+
+    /**
+     * Returns the Base64 form of a stored {@code Content-MD5}, or an empty string if the blob has none.
+     */
+    static String encode(byte[] contentMd5) {
+        return contentMd5 != null ? Base64.getEncoder().encodeToString(contentMd5) : "";
+    }
+}
@@ -24,18 +24,16 @@ import java.util.concurrent.TimeUnit;
 
 import com.azure.resourcemanager.storage.models.StorageAccount;
 import com.azure.storage.blob.BlobContainerClient;
-import com.azure.storage.blob.BlobServiceClient;
-import com.azure.storage.blob.BlobServiceClientBuilder;
-import com.azure.storage.blob.models.BlobContainerAccessPolicies;
+import com.azure.storage.blob.models.BlobContainerProperties;
 import com.azure.storage.blob.models.BlobErrorCode;
 import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.models.PublicAccessType;
+import gyro.azure.AzureBackoff;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.core.GyroException;
 import gyro.core.GyroUI;
 import gyro.core.Type;
-import gyro.core.Wait;
 import gyro.core.resource.Id;
 import gyro.core.resource.Output;
 import gyro.core.resource.Resource;
@@ -132,22 +130,39 @@ public class CloudBlobContainerResource extends AzureResource implements Copyabl
 
     @Override
     public void copyFrom(BlobContainerClient container) {
-        setPublicAccess(Optional.ofNullable(container).map(BlobContainerClient::getAccessPolicy).map(
-            BlobContainerAccessPolicies::getBlobAccessType).map(PublicAccessType::toString).orElse(null));
+        copyFrom(container, container.getProperties());
+    }
+
+    private void copyFrom(BlobContainerClient container, BlobContainerProperties properties) {
+        // The container properties carry the public access level as well, so no separate access policy call.
+        setPublicAccess(Optional.ofNullable(properties.getBlobPublicAccess())
+            .map(PublicAccessType::toString)
+            .orElse(null));
         setName(container.getBlobContainerName());
-        setMetadata(container.getProperties().getMetadata());
-        setStorageAccount(findById(StorageAccountResource.class, container.getAccountName()));
+        setMetadata(properties.getMetadata());
+
+        if (getStorageAccount() == null) {
+            setStorageAccount(findById(StorageAccountResource.class, container.getAccountName()));
+        }
     }
 
     @Override
     public boolean refresh() {
         BlobContainerClient blobContainer = blobContainer();
+        BlobContainerProperties properties;
+
+        try {
+            properties = blobContainer.getProperties();
 
-        if (!blobContainer.exists()) {
-            return false;
+        } catch (BlobStorageException ex) {
+            if (ex.getStatusCode() == 404) {
+                return false;
+            }
+
+            throw ex;
         }
 
-        copyFrom(blobContainer);
+        copyFrom(blobContainer, properties);
 
         return true;
     }
@@ -176,9 +191,7 @@ public class CloudBlobContainerResource extends AzureResource implements Copyabl
             StorageAccount refreshedStorageAccount = getStorageAccount().getStorageAccount();
 
             if (refreshedStorageAccount != null && refreshedStorageAccount.isBlobPublicAccessAllowed()) {
-                Wait.atMost(2, TimeUnit.MINUTES)
-                    .prompt(false)
-                    .checkEvery(10, TimeUnit.SECONDS)
+                AzureBackoff.atMost(2, TimeUnit.MINUTES)
                     .until(() -> {
                         try {
                             blobContainer.setAccessPolicy(PublicAccessType.fromString(getPublicAccess()), null);
@@ -219,10 +232,6 @@ public class CloudBlobContainerResource extends AzureResource implements Copyabl
     }
 
     protected BlobContainerClient blobContainer() {
-        BlobServiceClient client = new BlobServiceClientBuilder()
-            .connectionString(getStorageAccount().getConnection())
-            .buildClient();
-
-        return client.getBlobContainerClient(getName());
+        return getStorageAccount().blobServiceClient().getBlobContainerClient(getName());
     }
 }
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package gyro.azure.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import gyro.azure.AzureParallel;
+import gyro.azure.AzureResource;
+import gyro.core.GyroUI;
+import gyro.core.Type;
+import gyro.core.resource.Output;
+import gyro.core.resource.Resource;
+import gyro.core.resource.Updatable;
+import gyro.core.scope.State;
+import gyro.core.validation.Range;
+import gyro.core.validation.Required;
+import gyro.core.validation.ValidationError;
+
+/**
+ * Syncs a local directory to a prefix in a blob container.
+ *
+ * The local directory is summarized as a manifest of relative paths, sizes and content MD5s. Refresh builds the same
+ * manifest from a single listing of the remote blobs under the prefix, so only the manifest's MD5 and the file
+ * count are kept in state, however many files the directory holds. On create and update, files that are missing or
+ * different remotely are uploaded and blobs under the prefix without a local file are deleted, both on a pool of
+ * ``max-concurrency`` workers.
+ *
+ * Example
+ * -------
+ *
+ * .. code-block:: gyro
+ *
+ *     azure::cloud-blob-directory blob-directory-example
+ *         container: $(azure::cloud-blob-container blob-container-example)
+ *         directory: "site"
+ *         prefix: "static/"
+ *     end
+ */
+@Type("cloud-blob-directory")
+public class CloudBlobDirectoryResource extends AzureResource {
+
+    private CloudBlobContainerResource container;
+    private String directory;
+    private String prefix;
+    private String manifestMd5;
+    private Integer blockSize;
+    private Integer maxConcurrency;
+    private Integer fileCount;
+
+    private transient Map<String, DirectoryManifest.Entry> localManifest;
+
+    /**
+     * The container to sync the directory to.
+     */
+    @Required
+    public CloudBlobContainerResource getContainer() {
+        return container;
+    }
+
+    public void setContainer(CloudBlobContainerResource container) {
+        this.container = container;
+    }
+
+    /**
+     * The path of the local directory to sync.
+     */
+    @Required
+    @Updatable
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The prefix that is prepended to the relative path of every file to form its blob name, for example
+     * ``static/``. Every blob under this prefix is managed by the resource. Must end with ``/`` so that
+     * ``static/`` doesn't also match the blobs of ``staticfoo/``.
+     */
+    @Required
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * The Base64 MD5 of the directory manifest. Computed from ``directory`` and compared with the manifest of the
+     * remote blobs, so the directory is only synced when something changed.
+     */
+    @Updatable
+    public String getManifestMd5() {
+        if (manifestMd5 == null && getDirectory() != null) {
+            manifestMd5 = DirectoryManifest.md5(localManifest());
+        }
+
+        return manifestMd5;
+    }
+
+    public void setManifestMd5(String manifestMd5) {
+        this.manifestMd5 = manifestMd5;
+    }
+
+    /**
+     * The size in MiB of the blocks that large files are uploaded in. Defaults to ``8``.
+     */
+    @Range(min = 1, max = 4000)
+    public Integer getBlockSize() {
+        if (blockSize == null) {
+            blockSize = BlobTransfer.DEFAULT_BLOCK_SIZE;
+        }
+
+        return blockSize;
+    }
+
+    public void setBlockSize(Integer blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * The maximum number of files uploaded or deleted at the same time. Defaults to ``8``.
+     */
+    @Range(min = 1, max = 64)
+    public Integer getMaxConcurrency() {
+        if (maxConcurrency == null) {
+            maxConcurrency = BlobTransfer.DEFAULT_MAX_CONCURRENCY;
+        }
+
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(Integer maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * The number of blobs under the prefix.
+     */
+    @Output
+    public Integer getFileCount() {
+        return fileCount;
+    }
+
+    public void setFileCount(Integer fileCount) {
+        this.fileCount = fileCount;
+    }
+
+    @Override
+    public boolean refresh() {
+        BlobContainerClient blobContainer = getContainer().blobContainer();
+        Map<String, DirectoryManifest.Entry> remoteManifest;
+
+        try {
+            remoteManifest = remoteManifest(blobContainer);
+
+        } catch (BlobStorageException ex) {
+            if (ex.getStatusCode() == 404) {
+                return false;
+            }
+
+            throw ex;
+        }
+
+        setManifestMd5(DirectoryManifest.md5(remoteManifest));
+        setFileCount(remoteManifest.size());
+
+        return true;
+    }
+
+    @Override
+    public void create(GyroUI ui, State state) {
+        sync();
+    }
+
+    @Override
+    public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        if (changedFieldNames.contains("manifest-md5") || changedFieldNames.contains("directory")) {
+            sync();
+        }
+    }
+
+    @Override
+    public void delete(GyroUI ui, State state) {
+        BlobContainerClient blobContainer = getContainer().blobContainer();
+
+        AzureParallel.map(new ArrayList<>(remoteManifest(blobContainer).keySet()), getMaxConcurrency(), path -> {
+            blobContainer.getBlobClient(getPrefix() + path).delete();
+            return null;
+        });
+    }
+
+    @Override
+    public List<ValidationError> validate() {
+        List<ValidationError> errors = new ArrayList<>();
+
+        if (getPrefix() != null && (getPrefix().startsWith("/") || !getPrefix().endsWith("/"))) {
+            errors.add(new ValidationError(this, "prefix", "'prefix' must end with '/' and cannot start with '/'."));
+        }
+
+        return errors;
+    }
+
+    private void sync() {
+        BlobContainerClient blobContainer = getContainer().blobContainer();
+        Map<String, DirectoryManifest.Entry> local = localManifest();
+        Map<String, DirectoryManifest.Entry> remote = remoteManifest(blobContainer);
+
+        // Biggest files first so a large file does not start last and hold up the whole sync.
+        List<String> uploads = local.entrySet().stream()
+            .filter(e -> !e.getValue().equals(remote.get(e.getKey())))
+            .sorted((a, b) -> Long.compare(b.getValue().size, a.getValue().size))
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+
+        List<String> deletes = remote.keySet().stream()
+            .filter(path -> !local.containsKey(path))
+            .collect(Collectors.toList());
+
+        AzureParallel.map(uploads, getMaxConcurrency(), path -> {
+            BlobTransfer.upload(
+                blobContainer.getBlobClient(getPrefix() + path),
+                () -> openInput(getDirectory() + "/" + path),
+                local.get(path).md5,
+                getBlockSize(),
+                1);
+            return null;
+        });
+
+        AzureParallel.map(deletes, getMaxConcurrency(), path -> {
+            blobContainer.getBlobClient(getPrefix() + path).delete();
+            return null;
+        });
+
+        setManifestMd5(DirectoryManifest.md5(local));
+        setFileCount(local.size());
+    }
+
+    private Map<String, DirectoryManifest.Entry> localManifest() {
+        if (localManifest == null) {
+            localManifest = DirectoryManifest.local(getDirectory(), getMaxConcurrency(), this::openInput);
+        }
+
+        return localManifest;
+    }
+
+    private Map<String, DirectoryManifest.Entry> remoteManifest(BlobContainerClient blobContainer) {
+        Map<String, DirectoryManifest.Entry> manifest = new TreeMap<>();
+
+        for (BlobItem blob : blobContainer.listBlobs(new ListBlobsOptions().setPrefix(getPrefix()), null)) {
+            String path = blob.getName().substring(getPrefix().length());
+
+            manifest.put(path, new DirectoryManifest.Entry(
+                path,
+                blob.getProperties().getContentLength(),
+                BlobTransfer.encode(blob.getProperties().getContentMd5())));
+        }
+
+        return manifest;
+    }
+}
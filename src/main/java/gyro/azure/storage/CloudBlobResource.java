@@ -16,20 +16,22 @@
 
 package gyro.azure.storage;
 
-import java.io.BufferedInputStream;
 import java.util.Set;
 
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobStorageException;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.core.GyroException;
-import gyro.core.GyroInputStream;
 import gyro.core.GyroUI;
 import gyro.core.Type;
 import gyro.core.resource.Output;
 import gyro.core.resource.Resource;
+import gyro.core.resource.Updatable;
 import gyro.core.scope.State;
+import gyro.core.validation.Range;
 import gyro.core.validation.Required;
 
 /**
@@ -44,6 +46,8 @@ import gyro.core.validation.Required;
  *         blob-path: "/path/to/blob"
  *         container: $(azure::cloud-blob-container blob-container-example)
  *         file-path: "test-blob-doc.txt"
+ *         block-size: 16
+ *         max-concurrency: 8
  *     end
  */
 @Type("cloud-blob")
@@ -52,6 +56,9 @@ public class CloudBlobResource extends AzureResource implements Copyable<BlobCli
     private String blobPath;
     private CloudBlobContainerResource container;
     private String filePath;
+    private String contentMd5;
+    private Integer blockSize;
+    private Integer maxConcurrency;
     private String uri;
 
     /**
@@ -82,6 +89,7 @@ public class CloudBlobResource extends AzureResource implements Copyable<BlobCli
      * The path of the file to upload.
      */
     @Required
+    @Updatable
     public String getFilePath() {
         return filePath;
     }
@@ -90,6 +98,56 @@ public class CloudBlobResource extends AzureResource implements Copyable<BlobCli
         this.filePath = filePath;
     }
 
+    /**
+     * The Base64 MD5 of the content. Computed from ``file-path`` and compared with the MD5 stored on the Blob, so the
+     * file is only uploaded again when its content changed.
+     */
+    @Updatable
+    public String getContentMd5() {
+        if (contentMd5 == null && getFilePath() != null) {
+            contentMd5 = BlobTransfer.md5(() -> openInput(getFilePath()));
+        }
+
+        return contentMd5;
+    }
+
+    public void setContentMd5(String contentMd5) {
+        this.contentMd5 = contentMd5;
+    }
+
+    /**
+     * The size in MiB of the blocks that are uploaded in parallel. Files no bigger than one block are uploaded in a
+     * single request. Defaults to ``8``.
+     */
+    @Range(min = 1, max = 4000)
+    public Integer getBlockSize() {
+        if (blockSize == null) {
+            blockSize = BlobTransfer.DEFAULT_BLOCK_SIZE;
+        }
+
+        return blockSize;
+    }
+
+    public void setBlockSize(Integer blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * The maximum number of blocks uploaded at the same time. Defaults to ``8``.
+     */
+    @Range(min = 1, max = 64)
+    public Integer getMaxConcurrency() {
+        if (maxConcurrency == null) {
+            maxConcurrency = BlobTransfer.DEFAULT_MAX_CONCURRENCY;
+        }
+
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(Integer maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
     /**
      * The fully qualified uri of the Blob.
      */
@@ -116,11 +174,21 @@ public class CloudBlobResource extends AzureResource implements Copyable<BlobCli
     @Override
     public boolean refresh() {
         BlobClient blob = blob();
-        if (!blob.exists()) {
-            return false;
+        BlobProperties properties;
+
+        try {
+            properties = blob.getProperties();
+
+        } catch (BlobStorageException ex) {
+            if (ex.getStatusCode() == 404) {
+                return false;
+            }
+
+            throw ex;
         }
 
         copyFrom(blob);
+        setContentMd5(BlobTransfer.encode(properties.getContentMd5()));
 
         return true;
     }
@@ -129,17 +197,15 @@ public class CloudBlobResource extends AzureResource implements Copyable<BlobCli
     public void create(GyroUI ui, State state) {
         BlobClient blob = blob();
 
-        try (GyroInputStream inputStream = openInput(getFilePath())) {
-            blob.upload(new BufferedInputStream(inputStream), inputStream.available());
-        }
-
-        blob = blob();
+        upload(blob);
         setUri(blob.getBlobUrl());
     }
 
     @Override
     public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
-
+        if (changedFieldNames.contains("content-md5") || changedFieldNames.contains("file-path")) {
+            upload(blob());
+        }
     }
 
     @Override
@@ -148,6 +214,19 @@ public class CloudBlobResource extends AzureResource implements Copyable<BlobCli
         blob.delete();
     }
 
+    private void upload(BlobClient blob) {
+        String md5 = BlobTransfer.md5(() -> openInput(getFilePath()));
+
+        BlobTransfer.upload(
+            blob,
+            () -> openInput(getFilePath()),
+            md5,
+            getBlockSize(),
+            getMaxConcurrency());
+
+        setContentMd5(md5);
+    }
+
     private BlobClient blob() {
         BlobContainerClient client = getContainer().blobContainer();
 
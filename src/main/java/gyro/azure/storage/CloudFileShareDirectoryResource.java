@@ -0,0 +1,437 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure.storage;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import com.azure.storage.file.share.ShareClient;
+import com.azure.storage.file.share.ShareDirectoryClient;
+import com.azure.storage.file.share.ShareFileClient;
+import com.azure.storage.file.share.models.ShareFileItem;
+import com.azure.storage.file.share.models.ShareStorageException;
+import gyro.azure.AzureParallel;
+import gyro.azure.AzureResource;
+import gyro.core.GyroCore;
+import gyro.core.GyroUI;
+import gyro.core.Type;
+import gyro.core.resource.Output;
+import gyro.core.resource.Resource;
+import gyro.core.resource.Updatable;
+import gyro.core.scope.State;
+import gyro.core.validation.Range;
+import gyro.core.validation.Required;
+import gyro.core.validation.ValidationError;
+
+/**
+ * Syncs a local directory to a directory in a cloud file share.
+ *
+ * Like ``azure::cloud-blob-directory``, only the MD5 of the directory manifest and the file count are kept in
+ * state. On create and update, missing directories are created level by level, files whose size or MD5 differ are
+ * uploaded in 4 MiB ranges, and files and directories without a local counterpart are deleted. Directory creation,
+ * range uploads and deletes each run on a pool of ``max-concurrency`` workers.
+ *
+ * Example
+ * -------
+ *
+ * .. code-block:: gyro
+ *
+ *     azure::cloud-file-share-directory file-share-directory-example
+ *         share: $(azure::cloud-file-share cloud-file-share-example)
+ *         directory: "config"
+ *         path: "app/config"
+ *     end
+ */
+@Type("cloud-file-share-directory")
+public class CloudFileShareDirectoryResource extends AzureResource {
+
+    private CloudFileShareResource share;
+    private String directory;
+    private String path;
+    private String manifestMd5;
+    private Integer maxConcurrency;
+    private Integer fileCount;
+
+    private transient Map<String, DirectoryManifest.Entry> localManifest;
+
+    /**
+     * The file share to sync the directory to.
+     */
+    @Required
+    public CloudFileShareResource getShare() {
+        return share;
+    }
+
+    public void setShare(CloudFileShareResource share) {
+        this.share = share;
+    }
+
+    /**
+     * The path of the local directory to sync.
+     */
+    @Required
+    @Updatable
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * The directory in the share that the files are synced to, for example ``app/config``. Defaults to the root of
+     * the share. Every file and directory under it is managed by the resource.
+     */
+    public String getPath() {
+        if (path == null) {
+            path = "";
+        }
+
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * The Base64 MD5 of the directory manifest. Computed from ``directory`` and compared with the manifest of the
+     * remote files, so the directory is only synced when something changed. File listings don't include MD5s, so
+     * refresh reads the properties of every remote file whose size matches its local file, one request per file.
+     */
+    @Updatable
+    public String getManifestMd5() {
+        if (manifestMd5 == null && getDirectory() != null) {
+            manifestMd5 = DirectoryManifest.md5(localManifest());
+        }
+
+        return manifestMd5;
+    }
+
+    public void setManifestMd5(String manifestMd5) {
+        this.manifestMd5 = manifestMd5;
+    }
+
+    /**
+     * The maximum number of requests sent at the same time. Defaults to ``8``.
+     */
+    @Range(min = 1, max = 64)
+    public Integer getMaxConcurrency() {
+        if (maxConcurrency == null) {
+            maxConcurrency = BlobTransfer.DEFAULT_MAX_CONCURRENCY;
+        }
+
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(Integer maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * The number of files under the path.
+     */
+    @Output
+    public Integer getFileCount() {
+        return fileCount;
+    }
+
+    public void setFileCount(Integer fileCount) {
+        this.fileCount = fileCount;
+    }
+
+    @Override
+    public boolean refresh() {
+        RemoteTree remote = remoteTree(getShare().cloudFileShare());
+
+        if (remote == null) {
+            return false;
+        }
+
+        setManifestMd5(DirectoryManifest.md5(remote.files));
+        setFileCount(remote.files.size());
+
+        return true;
+    }
+
+    @Override
+    public void create(GyroUI ui, State state) {
+        sync();
+    }
+
+    @Override
+    public void update(GyroUI ui, State state, Resource current, Set<String> changedFieldNames) {
+        if (changedFieldNames.contains("manifest-md5") || changedFieldNames.contains("directory")) {
+            sync();
+        }
+    }
+
+    @Override
+    public void delete(GyroUI ui, State state) {
+        ShareClient share = getShare().cloudFileShare();
+        RemoteTree remote = remoteTree(share);
+
+        if (remote == null) {
+            return;
+        }
+
+        AzureParallel.map(new ArrayList<>(remote.files.keySet()), getMaxConcurrency(), file -> {
+            share.getFileClient(sharePath(file)).delete();
+            return null;
+        });
+
+        eachLevel(remote.directories, true, d -> share.getDirectoryClient(sharePath(d)).delete());
+
+        if (!getPath().isEmpty()) {
+            share.getDirectoryClient(getPath()).delete();
+        }
+    }
+
+    @Override
+    public List<ValidationError> validate() {
+        List<ValidationError> errors = new ArrayList<>();
+
+        if (getPath().startsWith("/") || getPath().endsWith("/")) {
+            errors.add(new ValidationError(this, "path", "'path' cannot start or end with '/'."));
+        }
+
+        return errors;
+    }
+
+    private void sync() {
+        ShareClient share = getShare().cloudFileShare();
+        Map<String, DirectoryManifest.Entry> local = localManifest();
+        RemoteTree remote = remoteTree(share);
+        Set<String> localDirectories = new TreeSet<>();
+
+        local.keySet().forEach(file -> localDirectories.addAll(parents(file)));
+
+        // The path itself and its parents only need creating if listing it failed.
+        Set<String> creates = new TreeSet<>();
+
+        if (remote == null) {
+            remote = new RemoteTree();
+
+            if (!getPath().isEmpty()) {
+                creates.addAll(parents(getPath() + "/"));
+            }
+        }
+
+        for (String directory : localDirectories) {
+            if (!remote.directories.contains(directory)) {
+                creates.add(sharePath(directory));
+            }
+        }
+
+        eachLevel(creates, false, d -> share.getDirectoryClient(d).createIfNotExists());
+
+        // Biggest files first so a large file does not start last and hold up the whole sync.
+        Map<String, DirectoryManifest.Entry> remoteFiles = remote.files;
+        List<DirectoryManifest.Entry> uploads = local.values().stream()
+            .filter(entry -> !entry.equals(remoteFiles.get(entry.path)))
+            .sorted((a, b) -> Long.compare(b.size, a.size))
+            .collect(Collectors.toList());
+
+        AzureParallel.map(uploads, getMaxConcurrency(), entry -> {
+            ShareFileClient file = share.getFileClient(sharePath(entry.path));
+
+            ShareFileTransfer.create(file, entry.size);
+
+            if (entry.size == 0) {
+                ShareFileTransfer.commit(file, entry.size, entry.md5);
+            }
+
+            return null;
+        });
+
+        // Ranges of every file share one pool, so a single large file still uploads in parallel. The last range of a
+        // file to finish sets its MD5, so a file with a failed range keeps none and is uploaded again next time.
+        Path root = GyroCore.getRootDirectory().resolve(getDirectory());
+        List<Runnable> ranges = new ArrayList<>();
+
+        for (DirectoryManifest.Entry entry : uploads) {
+            List<long[]> fileRanges = ShareFileTransfer.ranges(entry.size);
+            AtomicInteger remaining = new AtomicInteger(fileRanges.size());
+
+            for (long[] range : fileRanges) {
+                ranges.add(() -> {
+                    ShareFileClient file = share.getFileClient(sharePath(entry.path));
+
+                    ShareFileTransfer.uploadRange(file, root.resolve(entry.path), range[0], range[1]);
+
+                    if (remaining.decrementAndGet() == 0) {
+                        ShareFileTransfer.commit(file, entry.size, entry.md5);
+                    }
+                });
+            }
+        }
+
+        AzureParallel.map(ranges, getMaxConcurrency(), range -> {
+            range.run();
+            return null;
+        });
+
+        List<String> deletes = remoteFiles.keySet().stream()
+            .filter(file -> !local.containsKey(file))
+            .collect(Collectors.toList());
+
+        AzureParallel.map(deletes, getMaxConcurrency(), file -> {
+            share.getFileClient(sharePath(file)).delete();
+            return null;
+        });
+
+        List<String> directoryDeletes = remote.directories.stream()
+            .filter(d -> !localDirectories.contains(d))
+            .collect(Collectors.toList());
+
+        eachLevel(directoryDeletes, true, d -> share.getDirectoryClient(sharePath(d)).delete());
+
+        setManifestMd5(DirectoryManifest.md5(local));
+        setFileCount(local.size());
+    }
+
+    private Map<String, DirectoryManifest.Entry> localManifest() {
+        if (localManifest == null) {
+            localManifest = DirectoryManifest.local(getDirectory(), getMaxConcurrency(), this::openInput);
+        }
+
+        return localManifest;
+    }
+
+    /**
+     * Lists everything under the path, one directory level at a time with the directories of each level listed in
+     * parallel. Returns {@code null} if the path does not exist.
+     */
+    private RemoteTree remoteTree(ShareClient share) {
+        RemoteTree tree = new RemoteTree();
+        Map<String, Long> sizes = new TreeMap<>();
+        List<String> level = Collections.singletonList("");
+
+        try {
+            while (!level.isEmpty()) {
+                List<List<ShareFileItem>> listings = AzureParallel.map(level, getMaxConcurrency(), d ->
+                    directoryClient(share, d).listFilesAndDirectories().stream().collect(Collectors.toList()));
+
+                List<String> next = new ArrayList<>();
+
+                for (int i = 0; i < level.size(); i++) {
+                    String parent = level.get(i);
+
+                    for (ShareFileItem item : listings.get(i)) {
+                        String itemPath = parent.isEmpty() ? item.getName() : parent + "/" + item.getName();
+
+                        if (item.isDirectory()) {
+                            tree.directories.add(itemPath);
+                            next.add(itemPath);
+
+                        } else {
+                            sizes.put(itemPath, item.getFileSize());
+                        }
+                    }
+                }
+
+                level = next;
+            }
+
+        } catch (ShareStorageException ex) {
+            if (ex.getStatusCode() == 404) {
+                return null;
+            }
+
+            throw ex;
+        }
+
+        // Listings don't include Content-MD5, so it's read from each file's properties, but only where the sizes
+        // already match, since a file of another size has to be uploaded anyway.
+        Map<String, Long> localSizes = DirectoryManifest.sizes(getDirectory());
+
+        List<DirectoryManifest.Entry> entries = AzureParallel.map(
+            new ArrayList<>(sizes.keySet()),
+            getMaxConcurrency(),
+            file -> new DirectoryManifest.Entry(
+                file,
+                sizes.get(file),
+                Objects.equals(sizes.get(file), localSizes.get(file))
+                    ? BlobTransfer.encode(share.getFileClient(sharePath(file)).getProperties().getContentMd5())
+                    : ""));
+
+        entries.forEach(entry -> tree.files.put(entry.path, entry));
+
+        return tree;
+    }
+
+    private ShareDirectoryClient directoryClient(ShareClient share, String directory) {
+        String fullPath = sharePath(directory);
+
+        return fullPath.isEmpty() ? share.getRootDirectoryClient() : share.getDirectoryClient(fullPath);
+    }
+
+    private String sharePath(String relativePath) {
+        if (getPath().isEmpty()) {
+            return relativePath;
+        }
+
+        return relativePath.isEmpty() ? getPath() : getPath() + "/" + relativePath;
+    }
+
+    /**
+     * Runs {@code action} on the directories one depth at a time, shallowest or deepest first, with the directories
+     * of each depth handled in parallel.
+     */
+    private void eachLevel(Collection<String> directories, boolean deepestFirst, Consumer<String> action) {
+        TreeMap<Integer, List<String>> levels = directories.stream()
+            .collect(Collectors.groupingBy(d -> d.split("/").length, TreeMap::new, Collectors.toList()));
+
+        for (List<String> level : deepestFirst ? levels.descendingMap().values() : levels.values()) {
+            AzureParallel.map(level, getMaxConcurrency(), d -> {
+                action.accept(d);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Returns the directories that contain {@code file}, for example ``a`` and ``a/b`` for ``a/b/c.txt``.
+     */
+    private static List<String> parents(String file) {
+        List<String> parents = new ArrayList<>();
+
+        for (int i = file.indexOf('/'); i > 0; i = file.indexOf('/', i + 1)) {
+            parents.add(file.substring(0, i));
+        }
+
+        return parents;
+    }
+
+    private static class RemoteTree {
+
+        private final Map<String, DirectoryManifest.Entry> files = new TreeMap<>();
+        private final Set<String> directories = new TreeSet<>();
+    }
+}
@@ -19,8 +19,7 @@ package gyro.azure.storage;
 import java.util.Set;
 
 import com.azure.storage.file.share.ShareClient;
-import com.azure.storage.file.share.ShareServiceClient;
-import com.azure.storage.file.share.ShareServiceClientBuilder;
+import com.azure.storage.file.share.models.ShareProperties;
 import com.azure.storage.file.share.models.ShareStorageException;
 import com.azure.storage.file.share.options.ShareSetPropertiesOptions;
 import gyro.azure.AzureResource;
@@ -93,19 +92,27 @@ public class CloudFileShareResource extends AzureResource implements Copyable<Sh
 
     @Override
     public void copyFrom(ShareClient share) {
+        copyFrom(share, share.getProperties());
+    }
+
+    private void copyFrom(ShareClient share, ShareProperties properties) {
         setName(share.getShareName());
-        setShareQuota(share.getProperties().getQuota());
-        setStorageAccount(findById(StorageAccountResource.class, share.getAccountName()));
+        setShareQuota(properties.getQuota());
+
+        if (getStorageAccount() == null) {
+            setStorageAccount(findById(StorageAccountResource.class, share.getAccountName()));
+        }
     }
 
     @Override
     public boolean refresh() {
-        ShareClient share = verifiedCloudFileShare();
-        if (share == null) {
+        ShareClient share = cloudFileShare();
+        ShareProperties properties = verifiedProperties(share);
+        if (properties == null) {
             return false;
         }
 
-        copyFrom(share);
+        copyFrom(share, properties);
 
         return true;
     }
@@ -135,23 +142,19 @@ public class CloudFileShareResource extends AzureResource implements Copyable<Sh
         share.delete();
     }
 
-    private ShareClient cloudFileShare() {
-        ShareServiceClient client = new ShareServiceClientBuilder()
-            .connectionString(getStorageAccount().getConnection())
-            .buildClient();
-
-        return client.getShareClient(getName());
+    ShareClient cloudFileShare() {
+        return getStorageAccount().shareServiceClient().getShareClient(getName());
     }
 
-    private ShareClient verifiedCloudFileShare() {
-        ShareClient shareClient = cloudFileShare();
-
+    private ShareProperties verifiedProperties(ShareClient shareClient) {
         try {
-            shareClient.getProperties();
+            return shareClient.getProperties();
         } catch (ShareStorageException ex) {
-            shareClient = null;
-        }
+            if (ex.getStatusCode() != 404) {
+                throw ex;
+            }
 
-        return shareClient;
+            return null;
+        }
     }
 }
@@ -19,8 +19,6 @@ package gyro.azure.storage;
 import java.util.Set;
 
 import com.azure.storage.queue.QueueClient;
-import com.azure.storage.queue.QueueServiceClient;
-import com.azure.storage.queue.QueueServiceClientBuilder;
 import com.azure.storage.queue.models.QueueStorageException;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
@@ -90,7 +88,11 @@ public class CloudQueueResource extends AzureResource implements Copyable<QueueC
     @Override
     public void copyFrom(QueueClient queue) {
         setName(queue.getQueueName());
-        setStorageAccount(findById(StorageAccountResource.class, queue.getAccountName()));
+
+        if (getStorageAccount() == null) {
+            setStorageAccount(findById(StorageAccountResource.class, queue.getAccountName()));
+        }
+
         setId(String.format("%s/queueServices/default/queues/%s", getStorageAccount().getId(), getName()));
     }
 
@@ -125,11 +127,7 @@ public class CloudQueueResource extends AzureResource implements Copyable<QueueC
     }
 
     private QueueClient cloudQueue() {
-        QueueServiceClient client = new QueueServiceClientBuilder()
-            .connectionString(getStorageAccount().getConnection())
-            .buildClient();
-
-        return client.getQueueClient(getName());
+        return getStorageAccount().queueServiceClient().getQueueClient(getName());
     }
 
     private QueueClient verifiedCloudQueue() {
@@ -138,6 +136,10 @@ public class CloudQueueResource extends AzureResource implements Copyable<QueueC
         try {
             queueClient.getProperties();
         } catch (QueueStorageException ex) {
+            if (ex.getStatusCode() != 404) {
+                throw ex;
+            }
+
             queueClient = null;
         }
 
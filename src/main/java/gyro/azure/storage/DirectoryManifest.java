@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import gyro.azure.AzureParallel;
+import gyro.core.GyroCore;
+import gyro.core.GyroException;
+import gyro.core.GyroInputStream;
+
+/**
+ * Summarizes a directory tree as relative paths, sizes and content MD5s, so a local directory can be compared with
+ * its copy in a blob container or file share without keeping every file in state.
+ */
+final class DirectoryManifest {
+
+    private DirectoryManifest() {
+    }
+
+    /**
+     * Builds the manifest of the local {@code directory}, relative to the Gyro root, hashing up to
+     * {@code concurrency} files at a time.
+     */
+    static Map<String, Entry> local(String directory, int concurrency, Function<String, GyroInputStream> opener) {
+        Path root = GyroCore.getRootDirectory().resolve(directory);
+        List<Path> files;
+
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(Files::isRegularFile).collect(Collectors.toList());
+
+        } catch (IOException error) {
+            throw new GyroException(
+                String.format("Unable to list the files in directory [%s]!", directory),
+                error);
+        }
+
+        List<Entry> entries = AzureParallel.map(files, concurrency, file -> {
+            String path = root.relativize(file).toString().replace('\\', '/');
+
+            try {
+                return new Entry(
+                    path,
+                    Files.size(file),
+                    BlobTransfer.md5(() -> opener.apply(directory + "/" + path)));
+
+            } catch (IOException error) {
+                throw new GyroException(error.getMessage(), error);
+            }
+        });
+
+        Map<String, Entry> manifest = new TreeMap<>();
+        entries.forEach(entry -> manifest.put(entry.path, entry));
+
+        return manifest;
+    }
+
+    /**
+     * Returns the size of every file in the local {@code directory}, relative to the Gyro root, without reading
+     * them. A missing directory has no files.
+     */
+    static Map<String, Long> sizes(String directory) {
+        Path root = GyroCore.getRootDirectory().resolve(directory);
+        Map<String, Long> sizes = new TreeMap<>();
+
+        if (!Files.isDirectory(root)) {
+            return sizes;
+        }
+
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                sizes.put(root.relativize(file).toString().replace('\\', '/'), Files.size(file));
+            }
+
+        } catch (IOException error) {
+            throw new GyroException(
+                String.format("Unable to list the files in directory [%s]!", directory),
+                error);
+        }
+
+        return sizes;
+    }
+
+    /**
+     * Returns the Base64 MD5 of the manifest, which changes whenever a file is added, removed or modified.
+     */
+    static String md5(Map<String, Entry> manifest) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+
+            for (Entry entry : manifest.values()) {
+                digest.update(String.format("%s\t%d\t%s\n", entry.path, entry.size, entry.md5)
+                    .getBytes(StandardCharsets.UTF_8));
+            }
+
+            return Base64.getEncoder().encodeToString(digest.digest());
+
+        } catch (NoSuchAlgorithmException error) {
+            throw new GyroException(error.getMessage(), error);
+        }
+    }
+
+    static class Entry {
+
+        final String path;
+        final long size;
+        final String md5;
+
+        Entry(String path, Long size, String md5) {
+            this.path = path;
+            this.size = size != null ? size : 0L;
+            this.md5 = md5;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (!(other instanceof Entry)) {
+                return false;
+            }
+
+            Entry entry = (Entry) other;
+
+            return size == entry.size && Objects.equals(path, entry.path) && Objects.equals(md5, entry.md5);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, size, md5);
+        }
+    }
+}
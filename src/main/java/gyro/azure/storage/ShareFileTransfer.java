@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import com.azure.core.util.Context;
+import com.azure.storage.file.share.ShareFileClient;
+import com.azure.storage.file.share.models.ShareFileHttpHeaders;
+import com.azure.storage.file.share.options.ShareFileUploadRangeOptions;
+import gyro.core.GyroException;
+
+/**
+ * Uploads local files into a file share in ranges.
+ *
+ * A file is first created at its full size, then each range is written independently, so the ranges of one file, or
+ * of many files, can be sent in parallel. Its Base64 MD5 is only set in {@code Content-MD5} by {@link #commit} once
+ * every range has been written, so a file whose upload failed partway never looks in sync.
+ */
+final class ShareFileTransfer {
+
+    /**
+     * The largest range the file service accepts in a single Put Range request.
+     */
+    static final long RANGE_SIZE = 4L * 1024L * 1024L;
+
+    private ShareFileTransfer() {
+    }
+
+    /**
+     * Creates or replaces {@code file} as an empty file of {@code size} bytes without a content MD5.
+     */
+    static void create(ShareFileClient file, long size) {
+        file.create(size);
+    }
+
+    /**
+     * Sets the content MD5 of {@code file} after all of its ranges were written.
+     */
+    static void commit(ShareFileClient file, long size, String md5) {
+        file.setProperties(
+            size,
+            new ShareFileHttpHeaders().setContentMd5(Base64.getDecoder().decode(md5)),
+            null,
+            null);
+    }
+
+    /**
+     * Returns the ranges of a {@code size} byte file, each as an offset and length.
+     */
+    static List<long[]> ranges(long size) {
+        List<long[]> ranges = new ArrayList<>();
+
+        for (long offset = 0; offset < size; offset += RANGE_SIZE) {
+            ranges.add(new long[] { offset, Math.min(RANGE_SIZE, size - offset) });
+        }
+
+        return ranges;
+    }
+
+    /**
+     * Writes {@code length} bytes of {@code source} starting at {@code offset} to the same range of {@code file}.
+     */
+    static void uploadRange(ShareFileClient file, Path source, long offset, long length) {
+        byte[] buffer = new byte[(int) length];
+
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer);
+
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, offset + bytes.position()) < 0) {
+                    throw new GyroException(String.format("File [%s] changed while it was uploaded!", source));
+                }
+            }
+
+        } catch (IOException error) {
+            throw new GyroException(error.getMessage(), error);
+        }
+
+        file.uploadRangeWithResponse(
+            new ShareFileUploadRangeOptions(new ByteArrayInputStream(buffer), length).setOffset(offset),
+            null,
+            Context.NONE);
+    }
+}
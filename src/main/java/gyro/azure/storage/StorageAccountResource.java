@@ -18,15 +18,31 @@ package gyro.azure.storage;
 
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import com.azure.core.management.Region;
+import com.azure.core.management.exception.ManagementException;
 import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.storage.fluent.StorageManagementClient;
+import com.azure.resourcemanager.storage.models.CorsRule;
+import com.azure.resourcemanager.storage.models.CorsRules;
 import com.azure.resourcemanager.storage.models.Kind;
 import com.azure.resourcemanager.storage.models.StorageAccount;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.file.share.ShareServiceClient;
+import com.azure.storage.file.share.ShareServiceClientBuilder;
+import com.azure.storage.queue.QueueServiceClient;
+import com.azure.storage.queue.QueueServiceClientBuilder;
+import com.google.common.collect.ImmutableList;
+import gyro.azure.AzureParallel;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
 import gyro.azure.resources.ResourceGroupResource;
@@ -94,6 +110,8 @@ import gyro.core.validation.Required;
 @Type("storage-account")
 public class StorageAccountResource extends AzureResource implements Copyable<StorageAccount> {
 
+    private static final List<String> CORS_TYPES = ImmutableList.of("blob", "file", "queue", "table");
+
     private Set<Cors> corsRule;
     private ResourceGroupResource resourceGroup;
     private String id;
@@ -103,6 +121,13 @@ public class StorageAccountResource extends AzureResource implements Copyable<St
     private Boolean upgradeAccountV2;
     private Boolean blobPublicAccess;
 
+    // Every container, queue, share and blob of this account needs the keys and clients, so only make them once
+    // per instance.
+    private Map<String, String> cachedKeys;
+    private BlobServiceClient cachedBlobServiceClient;
+    private QueueServiceClient cachedQueueServiceClient;
+    private ShareServiceClient cachedShareServiceClient;
+
     /**
      * The cors rules associated with the Storage Account.
      *
@@ -228,10 +253,18 @@ public class StorageAccountResource extends AzureResource implements Copyable<St
 
         getTags().clear();
         storageAccount.tags().forEach((key, value) -> getTags().put(key, value));
+
+        readCorsRules(storageAccount);
     }
 
     @Override
     public boolean refresh() {
+        return refreshIncrementally(getId(), this::doRefresh);
+    }
+
+    private boolean doRefresh() {
+        evictDataPlaneClients();
+
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         StorageAccount storageAccount = client.storageAccounts()
@@ -260,21 +293,17 @@ public class StorageAccountResource extends AzureResource implements Copyable<St
             withCreate = withCreate.withGeneralPurposeAccountKindV2();
         }
 
-        StorageAccount storageAccount = withCreate.create();
-
-        setId(storageAccount.id());
-
-        StorageAccount.Update update = storageAccount.update();
-
         if (Boolean.TRUE.equals(getBlobPublicAccess())) {
-            update = update.enableBlobPublicAccess();
+            withCreate = withCreate.enableBlobPublicAccess();
         } else if (Boolean.FALSE.equals(getBlobPublicAccess())) {
-            update = update.disableBlobPublicAccess();
+            withCreate = withCreate.disableBlobPublicAccess();
         }
 
-        update.apply();
+        StorageAccount storageAccount = withCreate.create();
+
+        setId(storageAccount.id());
 
-        // TODO lifecycle and cors
+        saveCorsRules(client, new HashSet<>());
     }
 
     @Override
@@ -304,6 +333,10 @@ public class StorageAccountResource extends AzureResource implements Copyable<St
         }
 
         update.apply();
+
+        if (changedFieldNames.contains("cors-rule")) {
+            saveCorsRules(client, ((StorageAccountResource) current).getCorsRule());
+        }
     }
 
     @Override
@@ -311,6 +344,135 @@ public class StorageAccountResource extends AzureResource implements Copyable<St
         AzureResourceManager client = createClient(AzureResourceManager.class);
 
         client.storageAccounts().deleteById(getId());
+        evictDataPlaneClients();
+    }
+
+    /**
+     * CORS rules are properties of the blob, file, queue and table services rather than of the account, so they are
+     * set with one call per service type, in parallel, after the account exists. Each service's current properties
+     * are read first and only their CORS rules are replaced, so settings such as soft delete are kept.
+     */
+    private void saveCorsRules(AzureResourceManager client, Set<Cors> currentCorsRules) {
+        Set<String> types = new HashSet<>();
+        getCorsRule().forEach(rule -> types.add(rule.getType()));
+        currentCorsRules.forEach(rule -> types.add(rule.getType()));
+
+        if (types.isEmpty()) {
+            return;
+        }
+
+        StorageManagementClient storage = client.storageAccounts().manager().serviceClient();
+        String resourceGroupName = getResourceGroup().getName();
+
+        AzureParallel.map(types, types.size(), type -> {
+            CorsRules corsRules = new CorsRules().withCorsRules(getCorsRule().stream()
+                .filter(rule -> type.equals(rule.getType()))
+                .map(Cors::toCors)
+                .collect(Collectors.toList()));
+
+            switch (type) {
+                case "blob":
+                    storage.getBlobServices()
+                        .setServiceProperties(
+                            resourceGroupName,
+                            getName(),
+                            storage.getBlobServices()
+                                .getServiceProperties(resourceGroupName, getName())
+                                .withCors(corsRules));
+                    break;
+
+                case "file":
+                    storage.getFileServices()
+                        .setServiceProperties(
+                            resourceGroupName,
+                            getName(),
+                            storage.getFileServices()
+                                .getServiceProperties(resourceGroupName, getName())
+                                .withCors(corsRules));
+                    break;
+
+                case "queue":
+                    storage.getQueueServices()
+                        .setServiceProperties(
+                            resourceGroupName,
+                            getName(),
+                            storage.getQueueServices()
+                                .getServiceProperties(resourceGroupName, getName())
+                                .withCors(corsRules));
+                    break;
+
+                default:
+                    storage.getTableServices()
+                        .setServiceProperties(
+                            resourceGroupName,
+                            getName(),
+                            storage.getTableServices()
+                                .getServiceProperties(resourceGroupName, getName())
+                                .withCors(corsRules));
+                    break;
+            }
+
+            return null;
+        });
+    }
+
+    /**
+     * Reads the CORS rules of every service type, in parallel. Services the account kind doesn't have, such as the
+     * file service of a blob storage account, have no rules.
+     */
+    private void readCorsRules(StorageAccount storageAccount) {
+        StorageManagementClient storage = storageAccount.manager().serviceClient();
+        String resourceGroupName = storageAccount.resourceGroupName();
+        String name = storageAccount.name();
+
+        List<List<Cors>> rules = AzureParallel.map(CORS_TYPES, CORS_TYPES.size(), type -> {
+            CorsRules corsRules;
+
+            try {
+                switch (type) {
+                    case "blob":
+                        corsRules = storage.getBlobServices().getServiceProperties(resourceGroupName, name).cors();
+                        break;
+
+                    case "file":
+                        corsRules = storage.getFileServices().getServiceProperties(resourceGroupName, name).cors();
+                        break;
+
+                    case "queue":
+                        corsRules = storage.getQueueServices().getServiceProperties(resourceGroupName, name).cors();
+                        break;
+
+                    default:
+                        corsRules = storage.getTableServices().getServiceProperties(resourceGroupName, name).cors();
+                        break;
+                }
+
+            } catch (ManagementException error) {
+                int status = error.getResponse().getStatusCode();
+
+                if (status == 400 || status == 404) {
+                    return Collections.<Cors>emptyList();
+                }
+
+                throw error;
+            }
+
+            List<Cors> cors = new ArrayList<>();
+
+            if (corsRules != null && corsRules.corsRules() != null) {
+                for (CorsRule corsRule : corsRules.corsRules()) {
+                    Cors rule = newSubresource(Cors.class);
+                    rule.copyFrom(corsRule);
+                    rule.setType(type);
+                    cors.add(rule);
+                }
+            }
+
+            return cors;
+        });
+
+        getCorsRule().clear();
+        rules.forEach(getCorsRule()::addAll);
     }
 
     public String getConnection() {
@@ -320,17 +482,65 @@ public class StorageAccountResource extends AzureResource implements Copyable<St
             + "EndpointSuffix=core.windows.net", getName(), keys().get("key1"));
     }
 
-    public Map<String, String> keys() {
-        Map<String, String> keys = new HashMap<>();
+    public synchronized Map<String, String> keys() {
+        if (getId() == null) {
+            return new HashMap<>();
+        }
 
-        if (getId() != null) {
+        if (cachedKeys == null) {
+            Map<String, String> keys = new HashMap<>();
             AzureResourceManager client = createClient(AzureResourceManager.class);
 
             StorageAccount storageAccount = client.storageAccounts().getById(getId());
             storageAccount.getKeys().forEach(e -> keys.put(e.keyName(), e.value()));
+
+            cachedKeys = keys;
+        }
+
+        return new HashMap<>(cachedKeys);
+    }
+
+    synchronized BlobServiceClient blobServiceClient() {
+        if (getId() == null) {
+            return new BlobServiceClientBuilder().connectionString(getConnection()).buildClient();
         }
 
-        return keys;
+        if (cachedBlobServiceClient == null) {
+            cachedBlobServiceClient = new BlobServiceClientBuilder().connectionString(getConnection()).buildClient();
+        }
+
+        return cachedBlobServiceClient;
+    }
+
+    synchronized QueueServiceClient queueServiceClient() {
+        if (getId() == null) {
+            return new QueueServiceClientBuilder().connectionString(getConnection()).buildClient();
+        }
+
+        if (cachedQueueServiceClient == null) {
+            cachedQueueServiceClient = new QueueServiceClientBuilder().connectionString(getConnection()).buildClient();
+        }
+
+        return cachedQueueServiceClient;
+    }
+
+    synchronized ShareServiceClient shareServiceClient() {
+        if (getId() == null) {
+            return new ShareServiceClientBuilder().connectionString(getConnection()).buildClient();
+        }
+
+        if (cachedShareServiceClient == null) {
+            cachedShareServiceClient = new ShareServiceClientBuilder().connectionString(getConnection()).buildClient();
+        }
+
+        return cachedShareServiceClient;
+    }
+
+    private synchronized void evictDataPlaneClients() {
+        cachedKeys = null;
+        cachedBlobServiceClient = null;
+        cachedQueueServiceClient = null;
+        cachedShareServiceClient = null;
     }
 
     protected StorageAccount getStorageAccount() {
@@ -16,19 +16,17 @@
 
 package gyro.azure.storage;
 
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.azure.resourcemanager.AzureResourceManager;
-import com.azure.resourcemanager.storage.models.BlobTypes;
+import com.azure.resourcemanager.storage.fluent.models.ManagementPolicyInner;
 import com.azure.resourcemanager.storage.models.ManagementPolicy;
+import com.azure.resourcemanager.storage.models.ManagementPolicyName;
 import com.azure.resourcemanager.storage.models.ManagementPolicyRule;
 import com.azure.resourcemanager.storage.models.ManagementPolicySchema;
-import com.azure.resourcemanager.storage.models.PolicyRule.DefinitionStages.WithBlobTypesToFilterFor;
-import com.azure.resourcemanager.storage.models.PolicyRule.DefinitionStages.WithPolicyRuleAttachable;
 import com.azure.resourcemanager.storage.models.StorageAccount;
 import gyro.azure.AzureResource;
 import gyro.azure.Copyable;
@@ -114,6 +112,10 @@ public class StorageLifeCycle extends AzureResource implements Copyable<Manageme
 
     @Override
     public void copyFrom(ManagementPolicy policy) {
+        copyFrom(policy.innerModel());
+    }
+
+    private void copyFrom(ManagementPolicyInner policy) {
         setName(policy.name());
         setId(policy.id());
         setLastModified(Date.from(policy.lastModifiedTime().toInstant()));
@@ -142,52 +144,22 @@ public class StorageLifeCycle extends AzureResource implements Copyable<Manageme
                 "Cannot create lifecycle for a storage account not of 'General Purpose Account Kind V2'.");
         }
 
-        StorageAccount storageAccount = client.storageAccounts().getById(parent.getId());
-
-        ManagementPolicy.DefinitionStages.WithRule withRule = storageAccount.manager()
-            .managementPolicies()
-            .define(getName())
-            .withExistingStorageAccount(parent.getResourceGroup().getName(), parent.getName());
-
-        ManagementPolicy.DefinitionStages.WithCreate create = null;
-
-        for (PolicyRule rule : getRule()) {
-            WithBlobTypesToFilterFor withBlobTypesToFilterFor =
-                create == null
-                    ? withRule.defineRule(rule.getName()).withLifecycleRuleType()
-                    : create.defineRule(rule.getName()).withLifecycleRuleType();
-
-            WithPolicyRuleAttachable withPolicyRuleAttachable = withBlobTypesToFilterFor
-                .withBlobTypesToFilterFor(rule.getDefinition()
-                    .getFilter()
-                    .getBlobTypes()
-                    .stream()
-                    .map(BlobTypes::fromString)
-                    .collect(Collectors.toList()))
-                .withPrefixesToFilterFor(new ArrayList<>(rule.getDefinition().getFilter().getPrefixMatches()))
-                .withActionsOnBaseBlob(rule.getDefinition().getAction().getBaseBlob().toManagementPolicyBaseBlob());
-
-            if (rule.getDefinition().getAction().getSnapshot() != null) {
-                create = withPolicyRuleAttachable.withActionsOnSnapShot(rule.getDefinition()
-                    .getAction()
-                    .getSnapshot()
-                    .toManagementPolicySnapShot()).attach();
-            } else {
-                create = withPolicyRuleAttachable.attach();
-            }
-        }
-
-        ManagementPolicy policy = create.create();
+        ManagementPolicySchema policySchema = new ManagementPolicySchema();
+        policySchema.withRules(getRule().stream().map(PolicyRule::toManagementPolicyRule).collect(Collectors.toList()));
 
-        state.save();
+        // A single PUT of the whole schema. Unlike the fluent definition it keeps disabled rules, so no follow-up
+        // update is needed.
+        ManagementPolicyInner policy = client.storageAccounts()
+            .manager()
+            .serviceClient()
+            .getManagementPolicies()
+            .createOrUpdate(
+                parent.getResourceGroup().getName(),
+                parent.getName(),
+                ManagementPolicyName.DEFAULT,
+                new ManagementPolicyInner().withPolicy(policySchema));
 
-        // Api does not allow creating one or more disabled rule when creating a policy.
-        // If one or more rules are configured to be disabled then an update is required.
-        if (getRule().stream().anyMatch(o -> !o.getEnabled())) {
-            update(ui, state, this, new HashSet<>());
-        } else {
-            copyFrom(policy);
-        }
+        copyFrom(policy);
     }
 
     @Override
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class AzureIncrementalRefreshTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2024, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+    private static final String GROUP = "/subscriptions/s/resourcegroups/g";
+    private static final String NETWORK = GROUP + "/providers/microsoft.network/virtualnetworks/n";
+    private static final String SUBNET = NETWORK + "/subnets/a";
+
+    @Test
+    public void resourceWithoutWatermarkRefreshes() {
+        AzureIncrementalRefresh refresh = refresh(Collections.emptyMap(), new StubFeed());
+
+        assertFalse(refresh.isUnchanged(NETWORK));
+    }
+
+    @Test
+    public void unchangedResourceIsSkipped() {
+        AzureIncrementalRefresh refresh = refresh(watermark(NETWORK, 2), new StubFeed());
+
+        assertTrue(refresh.isUnchanged(NETWORK));
+    }
+
+    @Test
+    public void ownChangeAfterWatermarkRefreshes() {
+        AzureIncrementalRefresh refresh = refresh(watermark(NETWORK, 2), new StubFeed().change(NETWORK, 1));
+
+        assertFalse(refresh.isUnchanged(NETWORK));
+    }
+
+    @Test
+    public void childChangeRefreshesParent() {
+        AzureIncrementalRefresh refresh = refresh(watermark(NETWORK, 2), new StubFeed().change(SUBNET, 1));
+
+        assertFalse(refresh.isUnchanged(NETWORK));
+    }
+
+    @Test
+    public void parentChangeRefreshesChild() {
+        AzureIncrementalRefresh refresh = refresh(watermark(SUBNET, 2), new StubFeed().change(NETWORK, 1));
+
+        assertFalse(refresh.isUnchanged(SUBNET));
+    }
+
+    @Test
+    public void changeBeforeWatermarkIsIgnored() {
+        AzureIncrementalRefresh refresh = refresh(watermark(NETWORK, 2), new StubFeed().change(NETWORK, 3));
+
+        assertTrue(refresh.isUnchanged(NETWORK));
+    }
+
+    @Test
+    public void watermarkOutsideRetentionRefreshes() {
+        AzureIncrementalRefresh refresh = refresh(watermark(NETWORK, 24 * 20), new StubFeed());
+
+        assertFalse(refresh.isUnchanged(NETWORK));
+    }
+
+    @Test
+    public void feedFailureRefreshesEverything() {
+        StubFeed feed = new StubFeed();
+        feed.failure = new RuntimeException();
+
+        assertFalse(refresh(watermark(NETWORK, 2), feed).isUnchanged(NETWORK));
+    }
+
+    @Test
+    public void feedIsReadFromOldestUsableWatermark() {
+        Map<String, OffsetDateTime> watermarks = new HashMap<>(watermark(NETWORK, 2));
+        watermarks.putAll(watermark(SUBNET, 5));
+        watermarks.putAll(watermark(GROUP, 24 * 20));
+        StubFeed feed = new StubFeed();
+
+        refresh(watermarks, feed);
+
+        assertEquals(NOW.minusHours(5).minus(AzureIncrementalRefresh.EVENT_DELAY), feed.since);
+        assertEquals(NOW, feed.until);
+    }
+
+    @Test
+    public void skippedResourceIsConfirmedAndRefreshedResourceIsPending() {
+        AzureIncrementalRefresh refresh = refresh(watermark(NETWORK, 2), new StubFeed().change(SUBNET, 1));
+        Properties properties = new Properties();
+
+        assertTrue(refresh.refresh(SUBNET, () -> {
+            throw new AssertionError("Unchanged resource was refreshed!");
+        }));
+        assertTrue(refresh.refresh(NETWORK, () -> true));
+        refresh.record(properties);
+
+        assertEquals(NOW.toString(), properties.getProperty(SUBNET));
+        assertNull(properties.getProperty(NETWORK));
+        assertTrue(properties.getProperty(AzureIncrementalRefresh.PENDING_PREFIX + NETWORK)
+            .startsWith(NOW + ","));
+    }
+
+    @Test
+    public void pendingWatermarkIsPromotedAfterStateSave() {
+        Properties properties = pending(NETWORK, NOW, NOW.plusMinutes(1));
+
+        assertTrue(AzureIncrementalRefresh.promote(properties, NOW.plusMinutes(2)));
+        assertEquals(NOW.toString(), properties.getProperty(NETWORK));
+        assertEquals(1, properties.size());
+    }
+
+    @Test
+    public void pendingWatermarkIsDroppedWithoutStateSave() {
+        Properties properties = pending(NETWORK, NOW, NOW.plusMinutes(1));
+        properties.setProperty(NETWORK, NOW.minusDays(1).toString());
+
+        assertTrue(AzureIncrementalRefresh.promote(properties, NOW));
+        assertEquals(NOW.minusDays(1).toString(), properties.getProperty(NETWORK));
+        assertEquals(1, properties.size());
+
+        properties = pending(NETWORK, NOW, NOW.plusMinutes(1));
+
+        assertTrue(AzureIncrementalRefresh.promote(properties, null));
+        assertTrue(properties.isEmpty());
+    }
+
+    private static AzureIncrementalRefresh refresh(Map<String, OffsetDateTime> watermarks, StubFeed feed) {
+        return new AzureIncrementalRefresh(NOW, watermarks, feed);
+    }
+
+    private static Map<String, OffsetDateTime> watermark(String id, int hoursAgo) {
+        return Collections.singletonMap(id, NOW.minusHours(hoursAgo));
+    }
+
+    private static Properties pending(String id, OffsetDateTime watermark, OffsetDateTime refreshedAt) {
+        Properties properties = new Properties();
+        properties.setProperty(AzureIncrementalRefresh.PENDING_PREFIX + id, watermark + "," + refreshedAt);
+
+        return properties;
+    }
+
+    private static class StubFeed implements AzureChangeFeed {
+
+        private final Map<String, OffsetDateTime> changes = new HashMap<>();
+        private RuntimeException failure;
+        private OffsetDateTime since;
+        private OffsetDateTime until;
+
+        StubFeed change(String id, int hoursAgo) {
+            changes.put(id, NOW.minusHours(hoursAgo));
+            return this;
+        }
+
+        @Override
+        public Duration retention() {
+            return Duration.ofDays(14);
+        }
+
+        @Override
+        public Map<String, OffsetDateTime> changedResources(OffsetDateTime since, OffsetDateTime until) {
+            this.since = since;
+            this.until = until;
+
+            if (failure != null) {
+                throw failure;
+            }
+
+            return changes;
+        }
+    }
+}
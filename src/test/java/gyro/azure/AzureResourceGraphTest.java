@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.azure.core.management.AzureEnvironment;
+import com.azure.core.management.Region;
+import com.azure.core.management.profile.AzureProfile;
+import com.azure.resourcemanager.AzureResourceManager;
+import com.azure.resourcemanager.network.fluent.models.NetworkSecurityGroupInner;
+import com.azure.resourcemanager.network.models.NetworkSecurityGroup;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AzureResourceGraphTest {
+
+    private static final String ID = "/subscriptions/s/resourceGroups/g/providers/Microsoft.Network"
+        + "/networkSecurityGroups/web";
+
+    @Test
+    public void queryFollowsSkipTokens() {
+        List<String> skipTokens = new ArrayList<>();
+        AzureResourceGraph graph = new AzureResourceGraph((query, skipToken) -> {
+            skipTokens.add(skipToken);
+
+            return skipToken == null
+                ? new AzureResourceGraph.Page(Collections.singletonList(row("a")), "next")
+                : new AzureResourceGraph.Page(Collections.singletonList(row("b")), null);
+        });
+
+        List<Map<String, Object>> rows = graph.query("resources");
+
+        assertEquals(Arrays.asList(null, "next"), skipTokens);
+        assertEquals(2, rows.size());
+        assertEquals("b", rows.get(1).get("name"));
+    }
+
+    @Test
+    public void queryFiltersByTypeAndResourceGroup() {
+        assertEquals(
+            "resources | where type =~ 'microsoft.network/networksecuritygroups'",
+            AzureResourceGraph.query("microsoft.network/networksecuritygroups", null));
+
+        assertEquals(
+            "resources | where type =~ 'microsoft.network/networksecuritygroups' and resourceGroup =~ 'g'",
+            AzureResourceGraph.query("microsoft.network/networksecuritygroups", "g"));
+    }
+
+    @Test
+    public void rowMapsOntoInnerModel() {
+        NetworkSecurityGroupInner inner = AzureResourceGraph.toModel(
+            networkSecurityGroupRow(),
+            NetworkSecurityGroupInner.class);
+
+        assertEquals(ID, inner.id());
+        assertEquals("eastus", inner.location());
+        assertEquals("prod", inner.tags().get("env"));
+        assertEquals("80", inner.securityRules().get(0).destinationPortRange());
+    }
+
+    @Test
+    public void rowsBecomeFluentModels() {
+        AzureResourceGraph graph = new AzureResourceGraph((query, skipToken) -> {
+            assertTrue(query.contains("microsoft.network/networksecuritygroups"));
+
+            return new AzureResourceGraph.Page(Collections.singletonList(networkSecurityGroupRow()), null);
+        });
+
+        List<NetworkSecurityGroup> groups = graph.list(offlineClient(), NetworkSecurityGroup.class, "g");
+
+        assertEquals(1, groups.size());
+        assertEquals("web", groups.get(0).name());
+        assertEquals("g", groups.get(0).resourceGroupName());
+        assertEquals(Region.US_EAST, groups.get(0).region());
+        assertEquals("80", groups.get(0).securityRules().get("allow-http").destinationPortRange());
+    }
+
+    @Test
+    public void onlyCommonTypesAreSupported() {
+        assertTrue(AzureResourceGraph.supports(NetworkSecurityGroup.class));
+        assertFalse(AzureResourceGraph.supports(String.class));
+    }
+
+    private static Map<String, Object> row(String name) {
+        return ImmutableMap.of("name", name);
+    }
+
+    private static Map<String, Object> networkSecurityGroupRow() {
+        return ImmutableMap.<String, Object>builder()
+            .put("id", ID)
+            .put("name", "web")
+            .put("type", "microsoft.network/networksecuritygroups")
+            .put("location", "eastus")
+            .put("resourceGroup", "g")
+            .put("subscriptionId", "s")
+            .put("tags", ImmutableMap.of("env", "prod"))
+            .put("properties", ImmutableMap.of(
+                "provisioningState", "Succeeded",
+                "securityRules", Collections.singletonList(ImmutableMap.of(
+                    "name", "allow-http",
+                    "properties", ImmutableMap.<String, Object>builder()
+                        .put("protocol", "Tcp")
+                        .put("sourcePortRange", "*")
+                        .put("destinationPortRange", "80")
+                        .put("sourceAddressPrefix", "*")
+                        .put("destinationAddressPrefix", "*")
+                        .put("access", "Allow")
+                        .put("priority", 100)
+                        .put("direction", "Inbound")
+                        .build()))))
+            .build();
+    }
+
+    // Building the client doesn't call Azure, and wrapping rows into models doesn't either.
+    private static AzureResourceManager offlineClient() {
+        return AzureResourceManager
+            .authenticate(request -> Mono.empty(), new AzureProfile("t", "s", AzureEnvironment.AZURE))
+            .withSubscription("s");
+    }
+}
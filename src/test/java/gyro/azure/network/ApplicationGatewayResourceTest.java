@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024, Brightspot, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package gyro.azure.network;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import gyro.azure.AzureDiff;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ApplicationGatewayResourceTest {
+
+    @Test
+    public void unchangedListenersMakeZeroWriteCalls() {
+        CountingGateway gateway = new CountingGateway();
+        gateway.setListener(Collections.singleton(listener(80, "cert")));
+
+        ApplicationGatewayResource current = new ApplicationGatewayResource();
+        current.setListener(Collections.singleton(listener(80, "cert")));
+
+        gateway.update(null, null, current, Collections.singleton("listener"));
+
+        assertEquals(0, gateway.clients);
+    }
+
+    @Test
+    public void changedListenerReachesAzure() {
+        CountingGateway gateway = new CountingGateway();
+        gateway.setListener(Collections.singleton(listener(81, "cert")));
+
+        ApplicationGatewayResource current = new ApplicationGatewayResource();
+        current.setListener(Collections.singleton(listener(80, "cert")));
+
+        try {
+            gateway.update(null, null, current, Collections.singleton("listener"));
+
+        } catch (ClientRequested expected) {
+            // The client is the first thing a real update needs.
+        }
+
+        assertEquals(1, gateway.clients);
+    }
+
+    @Test
+    public void fieldsThatAreNotSentToAzureMakeZeroWriteCalls() {
+        CountingGateway gateway = new CountingGateway();
+
+        gateway.update(null, null, new ApplicationGatewayResource(), Collections.singleton("detached-create"));
+
+        assertEquals(0, gateway.clients);
+    }
+
+    @Test
+    public void changedTagsReachAzure() {
+        CountingGateway gateway = new CountingGateway();
+
+        try {
+            gateway.update(null, null, new ApplicationGatewayResource(), Collections.singleton("tags"));
+
+        } catch (ClientRequested expected) {
+            // The client is the first thing a real update needs.
+        }
+
+        assertEquals(1, gateway.clients);
+    }
+
+    @Test
+    public void identicalListenersAreUnchanged() {
+        assertFalse(AzureDiff.isChanged(listener(80, "cert"), listener(80, "cert")));
+    }
+
+    @Test
+    public void listenerPortChangeIsDetected() {
+        assertTrue(AzureDiff.isChanged(listener(81, "cert"), listener(80, "cert")));
+    }
+
+    @Test
+    public void nestedCertificateChangeIsDetected() {
+        assertTrue(AzureDiff.isChanged(listener(80, "new-cert"), listener(80, "cert")));
+    }
+
+    @Test
+    public void addedListenerIsChanged() {
+        assertTrue(AzureDiff.isChanged(listener(80, "cert"), null));
+    }
+
+    @Test
+    public void backendAddressOrderIsIgnored() {
+        Backend pending = backend("10.0.0.1", "10.0.0.2");
+        Backend current = backend("10.0.0.2", "10.0.0.1");
+
+        assertFalse(AzureDiff.isChanged(pending, current));
+        assertTrue(AzureDiff.isChanged(backend("10.0.0.3"), current));
+    }
+
+    private static Listener listener(int port, String certificateName) {
+        ListenerSslCertificate certificate = new ListenerSslCertificate();
+        certificate.setCertificateName(certificateName);
+        certificate.setCertificateSecretId("https://vault/secrets/" + certificateName);
+
+        Listener listener = new Listener();
+        listener.setName("listener");
+        listener.setPort(port);
+        listener.setPrivateFrontend(false);
+        listener.setSslCertificate(certificate);
+
+        return listener;
+    }
+
+    private static Backend backend(String... ipAddresses) {
+        Backend backend = new Backend();
+        backend.setName("backend");
+        backend.setIpAddresses(new HashSet<>(Arrays.asList(ipAddresses)));
+
+        return backend;
+    }
+
+    private static class CountingGateway extends ApplicationGatewayResource {
+
+        private int clients;
+
+        @Override
+        protected <T> T createClient(Class<T> clientClass) {
+            clients++;
+            throw new ClientRequested();
+        }
+    }
+
+    private static class ClientRequested extends RuntimeException {
+
+    }
+}